@@ -0,0 +1,193 @@
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import desempenho.FabricaMapas;
+import desempenho.Mapa;
+
+/**
+ * Adapta as estruturas do projeto à interface {@link Mapa} dos benchmarks.
+ * Fica no pacote padrão porque só daqui as estruturas podem ser referenciadas pelo nome.
+ */
+public class MapasDoProjeto implements FabricaMapas {
+
+    @Override
+    public Mapa criar(String estrutura, int capacidade) {
+        switch (estrutura) {
+            case "ABB":
+                return new Mapeamento(new ABB<>());
+            case "AVL":
+                return new Mapeamento(new AVL<>());
+            case "ArvoreRubroNegra":
+                return new Mapeamento(new ArvoreRubroNegra<>());
+            case "Treap":
+                return new Mapeamento(new Treap<>());
+            case "ListaDeSaltosConcorrente":
+                return new Mapeamento(new ListaDeSaltosConcorrente<>());
+            case "TabelaHash":
+                return new Mapeamento(new TabelaHash<>(capacidade));
+            case "TabelaHashRobinHood":
+                return new Mapeamento(new TabelaHashRobinHood<>(capacidade));
+            case "TabelaHashConcorrente":
+                return new Mapeamento(new TabelaHashConcorrente<>(capacidade));
+            case "TabelaHashInt":
+                return new MapeamentoInt(new TabelaHashInt<>(capacidade));
+            case "Lista":
+                return new ListaComoMapa(new Lista<>());
+            default:
+                throw new IllegalArgumentException("Estrutura desconhecida ou somente de leitura: " + estrutura);
+        }
+    }
+
+    @Override
+    public void habilitarMetricas(boolean habilitar) {
+        RegistroMetricas.habilitar(habilitar);
+    }
+
+    @Override
+    public Mapa carregar(String estrutura, Object[] chaves) {
+        Mapa mapa;
+
+        if (estrutura.equals("IndiceEstatico")) {
+            AVL<Object, Object> arvore = new AVL<>();
+            for (Object chave : chaves)
+                arvore.inserir(chave, chave);
+            return new Mapeamento(new IndiceEstatico<>(arvore));
+        }
+
+        mapa = criar(estrutura, chaves.length);
+        for (Object chave : chaves)
+            mapa.inserir(chave);
+        return mapa;
+    }
+
+    private static class Mapeamento implements Mapa {
+
+        private final IMapeamento<Object, Object> mapeamento;
+
+        Mapeamento(IMapeamento<Object, Object> mapeamento) {
+            this.mapeamento = mapeamento;
+        }
+
+        @Override
+        public void inserir(Object chave) {
+            mapeamento.inserir(chave, chave);
+        }
+
+        @Override
+        public Object pesquisar(Object chave) {
+            try {
+                return mapeamento.pesquisar(chave);
+            } catch (NoSuchElementException excecao) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean contem(Object chave) {
+            return mapeamento.contem(chave);
+        }
+
+        @Override
+        public Object remover(Object chave) {
+            return mapeamento.remover(chave);
+        }
+
+        @Override
+        public int tamanho() {
+            return mapeamento.tamanho();
+        }
+
+        @Override
+        public void percorrer(Appendable destino) throws IOException {
+            mapeamento.percorrer(destino);
+        }
+    }
+
+    /** Usa as operações com chave primitiva da tabela, que não criam objetos na pesquisa. */
+    private static class MapeamentoInt implements Mapa {
+
+        private final TabelaHashInt<Object> tabela;
+
+        MapeamentoInt(TabelaHashInt<Object> tabela) {
+            this.tabela = tabela;
+        }
+
+        @Override
+        public void inserir(Object chave) {
+            tabela.inserir(((Integer) chave).intValue(), chave);
+        }
+
+        @Override
+        public Object pesquisar(Object chave) {
+            try {
+                return tabela.pesquisar(((Integer) chave).intValue());
+            } catch (NoSuchElementException excecao) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean contem(Object chave) {
+            return tabela.contem(((Integer) chave).intValue());
+        }
+
+        @Override
+        public Object remover(Object chave) {
+            return tabela.remover(((Integer) chave).intValue());
+        }
+
+        @Override
+        public int tamanho() {
+            return tabela.tamanho();
+        }
+
+        @Override
+        public void percorrer(Appendable destino) throws IOException {
+            tabela.percorrer(destino);
+        }
+    }
+
+    /** A lista guarda apenas as chaves: inserção no final e pesquisa e remoção por varredura. */
+    private static class ListaComoMapa implements Mapa {
+
+        private final Lista<Object> lista;
+
+        ListaComoMapa(Lista<Object> lista) {
+            this.lista = lista;
+        }
+
+        @Override
+        public void inserir(Object chave) {
+            lista.inserirFinal(chave);
+        }
+
+        @Override
+        public Object pesquisar(Object chave) {
+            try {
+                return lista.pesquisar(chave);
+            } catch (NoSuchElementException excecao) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean contem(Object chave) {
+            return lista.contem(chave);
+        }
+
+        @Override
+        public Object remover(Object chave) {
+            return lista.remover(chave);
+        }
+
+        @Override
+        public int tamanho() {
+            return lista.tamanho();
+        }
+
+        @Override
+        public void percorrer(Appendable destino) throws IOException {
+            lista.percorrer(destino);
+        }
+    }
+}
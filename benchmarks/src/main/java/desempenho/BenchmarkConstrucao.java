@@ -0,0 +1,57 @@
+package desempenho;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Montagem de uma estrutura vazia com todas as chaves da distribuição, inseridas uma a uma na ordem gerada.
+ * Cada execução monta uma estrutura nova, e o tempo é medido por execução.
+ * As métricas das estruturas são desabilitadas, para que o custo delas não entre nas medidas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 2, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class BenchmarkConstrucao {
+
+    @Param({ "ABB", "AVL", "ArvoreRubroNegra", "Treap", "ListaDeSaltosConcorrente", "TabelaHash", "Lista" })
+    public String estrutura;
+
+    @Param({ "SEQUENCIAL", "ALEATORIA", "DESCRICOES" })
+    public Distribuicao distribuicao;
+
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int tamanho;
+
+    private Object[] chaves;
+
+    @Setup(Level.Trial)
+    public void gerar() {
+        distribuicao.verificar(estrutura, tamanho);
+        Mapa.habilitarMetricas(false);
+        chaves = distribuicao.presentes(tamanho);
+    }
+
+    @Benchmark
+    public Mapa inserirTodas() {
+        Mapa mapa = Mapa.criar(estrutura, tamanho);
+
+        for (Object chave : chaves)
+            mapa.inserir(chave);
+        return mapa;
+    }
+}
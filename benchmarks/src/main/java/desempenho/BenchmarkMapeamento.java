@@ -0,0 +1,103 @@
+package desempenho;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Operações sobre uma estrutura já montada: pesquisa de chaves presentes e ausentes, inserção seguida de
+ * remoção (o tamanho não muda entre as chamadas) e percurso completo.
+ *
+ * Cada operação é medida em vazão e em amostras de latência, das quais o JMH calcula os percentis.
+ * As pesquisas seguem uma ordem aleatória fixa das chaves, e não a ordem de inserção.
+ * A pesquisa de chaves ausentes usa {@link Mapa#contem(Object)}, que não cria exceção: a medida compara como
+ * cada estrutura descobre que a chave não está nela, e não o custo de montar a pilha de uma exceção.
+ * As métricas das estruturas são desabilitadas, para que o custo delas não entre nas medidas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class BenchmarkMapeamento {
+
+    /** Quantidade máxima de chaves ausentes distintas usadas pelas pesquisas e inserções. */
+    private static final int QUANTAS_AUSENTES = 1 << 16;
+
+    @Param({ "ABB", "AVL", "ArvoreRubroNegra", "Treap", "ListaDeSaltosConcorrente", "TabelaHash", "Lista" })
+    public String estrutura;
+
+    @Param({ "SEQUENCIAL", "ALEATORIA", "DESCRICOES" })
+    public Distribuicao distribuicao;
+
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int tamanho;
+
+    private Mapa mapa;
+    private Object[] presentes;
+    private Object[] ausentes;
+    private int proximaPresente;
+    private int proximaAusente;
+
+    @Setup(Level.Trial)
+    public void montar() {
+        Object[] chaves;
+
+        distribuicao.verificar(estrutura, tamanho);
+        Mapa.habilitarMetricas(false);
+
+        chaves = distribuicao.presentes(tamanho);
+        mapa = Mapa.carregar(estrutura, chaves);
+        presentes = Distribuicao.emOrdemAleatoria(chaves);
+        ausentes = distribuicao.ausentes(Math.min(tamanho, QUANTAS_AUSENTES), tamanho);
+    }
+
+    private Object presente() {
+        Object chave = presentes[proximaPresente];
+        proximaPresente = (proximaPresente + 1 == presentes.length) ? 0 : proximaPresente + 1;
+        return chave;
+    }
+
+    private Object ausente() {
+        Object chave = ausentes[proximaAusente];
+        proximaAusente = (proximaAusente + 1 == ausentes.length) ? 0 : proximaAusente + 1;
+        return chave;
+    }
+
+    @Benchmark
+    public Object pesquisarPresente() {
+        return mapa.pesquisar(presente());
+    }
+
+    @Benchmark
+    public boolean pesquisarAusente() {
+        return mapa.contem(ausente());
+    }
+
+    @Benchmark
+    public Object inserirERemover() {
+        Object chave = ausente();
+
+        mapa.inserir(chave);
+        return mapa.remover(chave);
+    }
+
+    @Benchmark
+    public void percorrer(Blackhole buraco) throws IOException {
+        mapa.percorrer(new Sumidouro(buraco));
+    }
+}
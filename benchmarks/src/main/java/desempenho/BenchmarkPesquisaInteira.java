@@ -0,0 +1,63 @@
+package desempenho;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Pesquisa por identificadores inteiros em todas as estruturas de busca do projeto, incluindo as que não
+ * aceitam qualquer chave ({@code TabelaHashInt}) ou não aceitam alterações ({@code IndiceEstatico}).
+ * As métricas das estruturas são desabilitadas, para que o custo delas não entre nas medidas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class BenchmarkPesquisaInteira {
+
+    @Param({ "ABB", "AVL", "ArvoreRubroNegra", "Treap", "ListaDeSaltosConcorrente", "IndiceEstatico", "TabelaHash",
+            "TabelaHashRobinHood", "TabelaHashConcorrente", "TabelaHashInt" })
+    public String estrutura;
+
+    @Param({ "SEQUENCIAL", "ALEATORIA" })
+    public Distribuicao distribuicao;
+
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int tamanho;
+
+    private Mapa mapa;
+    private Object[] presentes;
+    private int proxima;
+
+    @Setup(Level.Trial)
+    public void montar() {
+        Object[] chaves;
+
+        distribuicao.verificar(estrutura, tamanho);
+        Mapa.habilitarMetricas(false);
+
+        chaves = distribuicao.presentes(tamanho);
+        mapa = Mapa.carregar(estrutura, chaves);
+        presentes = Distribuicao.emOrdemAleatoria(chaves);
+    }
+
+    @Benchmark
+    public Object pesquisar() {
+        Object chave = presentes[proxima];
+        proxima = (proxima + 1 == presentes.length) ? 0 : proxima + 1;
+        return mapa.pesquisar(chave);
+    }
+}
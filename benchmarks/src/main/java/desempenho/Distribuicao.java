@@ -0,0 +1,172 @@
+package desempenho;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Distribuições das chaves usadas nos benchmarks. Todas são determinísticas: a mesma distribuição e o mesmo
+ * tamanho produzem sempre as mesmas chaves, na mesma ordem, para que os resultados sejam reprodutíveis.
+ */
+public enum Distribuicao {
+
+    /** Identificadores consecutivos, em ordem crescente, como os produtos lidos do arquivo. */
+    SEQUENCIAL {
+        @Override
+        Object[] presentes(int quantidade) {
+            Object[] chaves = new Object[quantidade];
+            for (int i = 0; i < quantidade; i++)
+                chaves[i] = PRIMEIRO_ID + i;
+            return chaves;
+        }
+
+        @Override
+        Object[] ausentes(int quantidade, int tamanho) {
+            Object[] chaves = new Object[quantidade];
+            for (int i = 0; i < quantidade; i++)
+                chaves[i] = PRIMEIRO_ID + tamanho + i;
+            return chaves;
+        }
+    },
+
+    /** Inteiros espalhados por todo o intervalo de {@code int}, sem repetição. */
+    ALEATORIA {
+        @Override
+        Object[] presentes(int quantidade) {
+            Object[] chaves = new Object[quantidade];
+            for (int i = 0; i < quantidade; i++)
+                chaves[i] = embaralhar(i);
+            return chaves;
+        }
+
+        @Override
+        Object[] ausentes(int quantidade, int tamanho) {
+            Object[] chaves = new Object[quantidade];
+            for (int i = 0; i < quantidade; i++)
+                chaves[i] = embaralhar(tamanho + i);
+            return chaves;
+        }
+    },
+
+    /**
+     * Descrições dos produtos de {@code produtos.txt} (caminho na propriedade {@code produtos}).
+     * Quando são pedidas mais chaves do que descrições distintas, as descrições se repetem com um sufixo numérico.
+     */
+    DESCRICOES {
+        @Override
+        Object[] presentes(int quantidade) {
+            String[] descricoes = descricoes();
+            Object[] chaves = new Object[quantidade];
+            for (int i = 0; i < quantidade; i++) {
+                int volta = i / descricoes.length;
+                String descricao = descricoes[i % descricoes.length];
+                chaves[i] = (volta == 0) ? descricao : descricao + " #" + volta;
+            }
+            return chaves;
+        }
+
+        @Override
+        Object[] ausentes(int quantidade, int tamanho) {
+            String[] descricoes = descricoes();
+            Object[] chaves = new Object[quantidade];
+            for (int i = 0; i < quantidade; i++)
+                chaves[i] = descricoes[i % descricoes.length] + " ~" + i;
+            return chaves;
+        }
+    };
+
+    private static final int PRIMEIRO_ID = 10_000;
+    private static final int LIMITE_ABB_DEGENERADA = 100_000;
+    private static final long SEMENTE = 0x5DEECE66DL;
+
+    private static String[] descricoesLidas;
+
+    /**
+     * Gera as chaves que serão inseridas na estrutura.
+     * @param quantidade a quantidade de chaves, todas distintas.
+     * @return as chaves, na ordem de inserção.
+     */
+    abstract Object[] presentes(int quantidade);
+
+    /**
+     * Gera chaves distintas de todas as retornadas por {@link #presentes(int)} para o mesmo tamanho.
+     * @param quantidade a quantidade de chaves.
+     * @param tamanho a quantidade de chaves presentes na estrutura.
+     * @return as chaves ausentes.
+     */
+    abstract Object[] ausentes(int quantidade, int tamanho);
+
+    /**
+     * Recusa as combinações cuja montagem não termina em tempo razoável: a {@code ABB}, sem balanceamento,
+     * degenera em uma lista quando recebe as chaves em ordem crescente, e a montagem passa a custar O(n²).
+     * @param estrutura o nome da estrutura.
+     * @param tamanho a quantidade de chaves a serem inseridas.
+     * @throws IllegalArgumentException se a combinação for inviável.
+     */
+    void verificar(String estrutura, int tamanho) {
+        if (this == SEQUENCIAL && estrutura.equals("ABB") && tamanho > LIMITE_ABB_DEGENERADA)
+            throw new IllegalArgumentException("ABB com chaves sequenciais degenera em lista: tamanho limitado a "
+                    + LIMITE_ABB_DEGENERADA + ".");
+    }
+
+    /**
+     * Retorna uma cópia das chaves em ordem aleatória (sempre a mesma), para que as pesquisas não sigam
+     * a ordem de inserção.
+     * @param chaves as chaves a serem embaralhadas.
+     * @return a cópia embaralhada.
+     */
+    static Object[] emOrdemAleatoria(Object[] chaves) {
+        Object[] copia = chaves.clone();
+        SplittableRandom aleatorio = new SplittableRandom(SEMENTE);
+
+        for (int i = copia.length - 1; i > 0; i--) {
+            int j = aleatorio.nextInt(i + 1);
+            Object troca = copia[i];
+            copia[i] = copia[j];
+            copia[j] = troca;
+        }
+        return copia;
+    }
+
+    /** Permutação dos inteiros de 32 bits: valores distintos de {@code i} produzem valores distintos. */
+    private static int embaralhar(int i) {
+        int x = i * 0x9E3779B9;
+        x ^= x >>> 16;
+        x *= 0x85EBCA6B;
+        x ^= x >>> 13;
+        return x;
+    }
+
+    private static synchronized String[] descricoes() {
+        if (descricoesLidas == null)
+            descricoesLidas = lerDescricoes(Path.of(System.getProperty("produtos", "../produtos.txt")));
+        return descricoesLidas;
+    }
+
+    private static String[] lerDescricoes(Path arquivo) {
+        Set<String> distintas = new LinkedHashSet<>();
+
+        try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha = leitor.readLine();
+            while ((linha = leitor.readLine()) != null) {
+                String[] campos = linha.split(";");
+                if (campos.length > 1)
+                    distintas.add(campos[1]);
+            }
+        } catch (IOException excecao) {
+            throw new UncheckedIOException("Não foi possível ler as descrições de " + arquivo.toAbsolutePath()
+                    + " (use -Dprodutos=<arquivo>)", excecao);
+        }
+
+        if (distintas.isEmpty())
+            throw new IllegalStateException("Nenhuma descrição encontrada em " + arquivo.toAbsolutePath());
+
+        return distintas.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,22 @@
+package desempenho;
+
+/**
+ * Criação das estruturas medidas. A implementação, {@code MapasDoProjeto}, fica no pacote padrão, junto com
+ * as estruturas, e é localizada pelo nome uma única vez.
+ */
+public interface FabricaMapas {
+
+    public static final FabricaMapas INSTANCIA = localizar();
+
+    public Mapa criar(String estrutura, int capacidade);
+    public Mapa carregar(String estrutura, Object[] chaves);
+    public void habilitarMetricas(boolean habilitar);
+
+    private static FabricaMapas localizar() {
+        try {
+            return (FabricaMapas) Class.forName("MapasDoProjeto").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException excecao) {
+            throw new IllegalStateException("Não foi possível carregar as estruturas do projeto.", excecao);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package desempenho;
+
+import java.io.IOException;
+
+/**
+ * Visão uniforme das estruturas medidas, com chaves e itens do tipo {@link Object}.
+ *
+ * As estruturas do projeto ficam no pacote padrão, que não pode ser importado de um pacote nomeado, e o JMH
+ * não aceita benchmarks no pacote padrão. Por isso, as implementações desta interface ficam em
+ * {@code MapasDoProjeto}, no pacote padrão, e chamam as estruturas diretamente: não há reflexão no caminho medido.
+ */
+public interface Mapa {
+
+    /**
+     * Insere a chave, usando a própria chave como item.
+     * @param chave a chave a ser inserida.
+     */
+    public void inserir(Object chave);
+
+    /**
+     * Pesquisa a chave.
+     * @param chave a chave procurada.
+     * @return o item associado à chave, ou {@code null} se a estrutura sinalizar que ela não foi encontrada.
+     */
+    public Object pesquisar(Object chave);
+
+    /**
+     * Indica se a chave está na estrutura, sem que a estrutura crie uma exceção quando ela está ausente.
+     * @param chave a chave procurada.
+     * @return verdadeiro se a chave foi encontrada.
+     */
+    public boolean contem(Object chave);
+
+    public Object remover(Object chave);
+    public int tamanho();
+    public void percorrer(Appendable destino) throws IOException;
+
+    /**
+     * Habilita ou desabilita as métricas que as estruturas acumulam a cada chamada. Os benchmarks as desabilitam,
+     * para que o custo delas não entre nas medidas.
+     * @param habilitar verdadeiro para registrar as chamadas; falso para ignorá-las.
+     */
+    public static void habilitarMetricas(boolean habilitar) {
+        FabricaMapas.INSTANCIA.habilitarMetricas(habilitar);
+    }
+
+    /**
+     * Cria uma estrutura vazia.
+     * @param estrutura o nome da classe da estrutura ({@code "AVL"}, {@code "TabelaHash"}, {@code "Lista"}...).
+     * @param capacidade a quantidade de chaves esperada, usada pelas tabelas hash.
+     * @return a estrutura criada.
+     */
+    public static Mapa criar(String estrutura, int capacidade) {
+        return FabricaMapas.INSTANCIA.criar(estrutura, capacidade);
+    }
+
+    /**
+     * Cria uma estrutura com as chaves informadas, inseridas na ordem do vetor.
+     * Aceita também as estruturas somente de leitura, como {@code IndiceEstatico}.
+     * @param estrutura o nome da classe da estrutura.
+     * @param chaves as chaves a serem inseridas.
+     * @return a estrutura criada.
+     */
+    public static Mapa carregar(String estrutura, Object[] chaves) {
+        return FabricaMapas.INSTANCIA.carregar(estrutura, chaves);
+    }
+}
@@ -0,0 +1,35 @@
+package desempenho;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Destino dos percursos: entrega cada trecho escrito ao {@link Blackhole}, para que a escrita não seja
+ * eliminada pelo compilador, sem acumular nada em memória.
+ */
+final class Sumidouro implements Appendable {
+
+    private final Blackhole buraco;
+
+    Sumidouro(Blackhole buraco) {
+        this.buraco = buraco;
+    }
+
+    @Override
+    public Appendable append(CharSequence trecho) {
+        buraco.consume(trecho);
+        return this;
+    }
+
+    @Override
+    public Appendable append(CharSequence trecho, int inicio, int fim) {
+        buraco.consume(trecho);
+        buraco.consume(fim - inicio);
+        return this;
+    }
+
+    @Override
+    public Appendable append(char caractere) {
+        buraco.consume(caractere);
+        return this;
+    }
+}
@@ -1,15 +1,26 @@
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Function;
 
-public class ABB<K, V> implements IMapeamento<K, V>{
+public class ABB<K, V> implements IMapeamento<K, V>, Iterable<Entrada<K, V>> {
 
-	private No<K, V> raiz; // referência à raiz da árvore.
-	private Comparator<K> comparador; //comparador empregado para definir "menores" e "maiores".
-	private int tamanho;
+	protected No<K, V> raiz; // referência à raiz da árvore.
+	protected Comparator<K> comparador; //comparador empregado para definir "menores" e "maiores".
+	protected int tamanho;
 	private long comparacoes;
-	private long inicio;
-	private long termino;
+	private long duracao;
+	private final Metrica metricaPesquisa = RegistroMetricas.metrica(getClass().getSimpleName(), "pesquisar");
+	private final Metrica metricaInsercao = RegistroMetricas.metrica(getClass().getSimpleName(), "inserir");
+	private final Metrica metricaRemocao = RegistroMetricas.metrica(getClass().getSimpleName(), "remover");
+	
+	/** Quantidade de itens a partir da qual a ordenação das entradas é feita em paralelo. */
+	private static final int LIMITE_ORDENACAO_PARALELA = 1 << 13;
 	
 	/**
 	 * Método auxiliar para inicialização da árvore binária de busca.
@@ -47,34 +58,134 @@ public class ABB<K, V> implements IMapeamento<K, V>{
      * Construtor da classe.
      * Esse construtor cria uma nova árvore binária a partir de uma outra árvore binária de busca,
      * com os mesmos itens, mas usando uma nova chave.
+     * As novas chaves são extraídas de todos os itens, ordenadas uma única vez (em paralelo, para árvores grandes)
+     * e a nova árvore é construída já balanceada, sem reinserção item a item.
      * @param original a árvore binária de busca original.
      * @param funcaoChave a função que irá extrair a nova chave de cada item para a nova árvore.
+     * @param comparador o comparador a ser utilizado para organizar os elementos da nova árvore.
+     * @throws IllegalArgumentException se a função extratora produzir a mesma chave para dois itens.
      */
     public ABB(ABB<?, V> original, Function<V, K> funcaoChave, Comparator<K> comparador) {
-        ABB<K, V> nova = new ABB<>();
-        nova = copiarArvore(original.raiz, funcaoChave, nova);
-        this.raiz = nova.raiz;
-        this.comparador = comparador;
+    	init(comparador);
+    	carregar(reindexar(original.entradasEmOrdem(), funcaoChave));
     }
     
     /**
-     * Recursivamente, copia os elementos da árvore original para esta, num processo análogo ao caminhamento em ordem.
-     * @param <T> Tipo da nova chave.
-     * @param raizArvore raiz da árvore original que será copiada.
-     * @param funcaoChave função extratora da nova chave para cada item da árvore.
-     * @param novaArvore Nova árvore. Parâmetro usado para permitir o retorno da recursividade.
-     * @return A nova árvore com os itens copiados e usando a chave indicada pela função extratora.
+     * Cria as entradas da nova árvore, com a chave extraída de cada item, já ordenadas pelo comparador desta árvore.
+     * @param originais as entradas da árvore original.
+     * @param funcaoChave função extratora da nova chave para cada item.
+     * @return as novas entradas, em ordem crescente de chave.
      */
-    private <T> ABB<T, V> copiarArvore(No<?, V> raizArvore, Function<V, T> funcaoChave, ABB<T, V> novaArvore) {
-    	
-        if (raizArvore != null) {
-    		novaArvore = copiarArvore(raizArvore.getEsquerda(), funcaoChave, novaArvore);
-            V item = raizArvore.getItem();
-            T chave = funcaoChave.apply(item);
-    		novaArvore.inserir(chave, item);
-    		novaArvore = copiarArvore(raizArvore.getDireita(), funcaoChave, novaArvore);
+    @SuppressWarnings("unchecked")
+    private Entrada<K, V>[] reindexar(Entrada<?, V>[] originais, Function<V, K> funcaoChave) {
+    	
+    	Entrada<K, V>[] entradas = new Entrada[originais.length];
+    	Comparator<Entrada<K, V>> comparadorEntradas = (e1, e2) -> comparador.compare(e1.getChave(), e2.getChave());
+    	V item;
+    	
+    	for (int i = 0; i < originais.length; i++) {
+    		item = originais[i].getValor();
+    		entradas[i] = new Entrada<>(funcaoChave.apply(item), item);
     	}
-        return novaArvore;
+    	
+    	if (entradas.length >= LIMITE_ORDENACAO_PARALELA)
+    		Arrays.parallelSort(entradas, comparadorEntradas);
+    	else
+    		Arrays.sort(entradas, comparadorEntradas);
+    	
+    	return entradas;
+    }
+    
+    /**
+     * Retorna os pares chave-item da árvore em ordem crescente de chave.
+     * O caminhamento em ordem é feito de forma iterativa, com uma pilha explícita.
+     * @return um vetor com as entradas da árvore, em ordem.
+     */
+    @SuppressWarnings("unchecked")
+    public Entrada<K, V>[] entradasEmOrdem() {
+    	
+    	Entrada<K, V>[] entradas = new Entrada[tamanho];
+    	ArrayDeque<No<K, V>> pilha = new ArrayDeque<>();
+    	No<K, V> atual = raiz;
+    	int posicao = 0;
+    	
+    	while ((atual != null) || !pilha.isEmpty()) {
+    		while (atual != null) {
+    			pilha.push(atual);
+    			atual = atual.getEsquerda();
+    		}
+    		atual = pilha.pop();
+    		entradas[posicao++] = new Entrada<>(atual.getChave(), atual.getItem());
+    		atual = atual.getDireita();
+    	}
+    	return entradas;
+    }
+    
+    /**
+     * Substitui o conteúdo da árvore pelos itens fornecidos, construindo diretamente uma árvore
+     * perfeitamente balanceada, com as alturas dos nós já calculadas, em tempo linear.
+     * Se as entradas já estiverem em ordem crescente de chave (segundo o comparador da árvore),
+     * nenhuma ordenação é feita; caso contrário, uma cópia delas é ordenada uma única vez.
+     * @param entradas os pares chave-item que formarão a árvore.
+     * @throws IllegalArgumentException se houver chaves repetidas entre as entradas.
+     */
+    public void carregar(Entrada<K, V>[] entradas) {
+    	
+    	Comparator<Entrada<K, V>> comparadorEntradas = (e1, e2) -> comparador.compare(e1.getChave(), e2.getChave());
+    	int comparacao;
+    	
+    	for (int i = 1; i < entradas.length; i++) {
+    		comparacao = comparadorEntradas.compare(entradas[i - 1], entradas[i]);
+    		if (comparacao > 0) {
+    			/// As entradas não estão em ordem: ordena-se uma cópia e a verificação recomeça.
+    			entradas = entradas.clone();
+    			Arrays.sort(entradas, comparadorEntradas);
+    			i = 0;
+    		} else if (comparacao == 0) {
+    			throw new IllegalArgumentException("O item já foi inserido anteriormente na árvore.");
+    		}
+    	}
+    	
+    	raiz = construirBalanceada(entradas, 0, entradas.length - 1);
+    	tamanho = entradas.length;
+    }
+    
+    /**
+     * Cria o nó de um novo item. As subclasses que guardam informações de balanceamento em nós
+     * especializados (cor, prioridade...) sobrescrevem este método.
+     * @param chave a chave do item.
+     * @param item o item.
+     * @return o novo nó, sem filhos.
+     */
+    protected No<K, V> criarNo(K chave, V item) {
+    	return new No<>(chave, item);
+    }
+    
+    /**
+     * Recursivamente, constrói uma árvore balanceada com as entradas ordenadas entre as posições informadas:
+     * a entrada do meio é a raiz, e as metades à esquerda e à direita formam as sub-árvores.
+     * A profundidade da recursão é logarítmica na quantidade de entradas.
+     * @param entradas as entradas, em ordem crescente de chave.
+     * @param inicio a posição da primeira entrada da sub-árvore.
+     * @param fim a posição da última entrada da sub-árvore.
+     * @return a raiz da sub-árvore construída, ou {@code null} se o intervalo estiver vazio.
+     */
+    private No<K, V> construirBalanceada(Entrada<K, V>[] entradas, int inicio, int fim) {
+    	
+    	No<K, V> raizArvore;
+    	int meio;
+    	
+    	if (inicio > fim)
+    		return null;
+    	
+    	meio = (inicio + fim) >>> 1;
+    	raizArvore = criarNo(entradas[meio].getChave(), entradas[meio].getValor());
+    	raizArvore.setEsquerda(construirBalanceada(entradas, inicio, meio - 1));
+    	raizArvore.setDireita(construirBalanceada(entradas, meio + 1, fim));
+    	raizArvore.setAltura();
+    	raizArvore.setTamanho();
+    	
+    	return raizArvore;
     }
     
     /**
@@ -89,98 +200,394 @@ public class ABB<K, V> implements IMapeamento<K, V>{
     
     @Override
     /**
-     * Método que encapsula a pesquisa recursiva de itens na árvore.
+     * Método que pesquisa, de forma iterativa, um item na árvore.
      * @param chave a chave do item que será pesquisado na árvore.
      * @return o valor associado à chave.
      */
 	public V pesquisar(K chave) {
-    	comparacoes = 0;
-    	inicio = System.nanoTime();
-    	V procurado = pesquisar(raiz, chave);
-    	termino = System.nanoTime();
-    	return procurado;
+    	
+    	No<K, V> encontrado = localizar(chave);
+    	
+    	if (encontrado == null)
+    		throw new NoSuchElementException("O item não foi localizado na árvore!");
+    	return encontrado.getItem();
+	}
+    
+    @Override
+	public boolean contem(K chave) {
+		return localizar(chave) != null;
 	}
     
-    private V pesquisar(No<K, V> raizArvore, K procurado) {
+    /**
+     * Método que localiza, de forma iterativa, o nó que armazena a chave e registra a pesquisa.
+     * A pesquisa desce da raiz até o nó procurado sem alocar memória nem empilhar chamadas, e conta as comparações
+     * numa variável local, e não no campo, para que pesquisas simultâneas não misturem seus números.
+     * @param chave a chave do item que será pesquisado na árvore.
+     * @return o nó que armazena a chave, ou {@code null} se ela não estiver na árvore.
+     */
+	private No<K, V> localizar(K chave) {
     	
+    	No<K, V> atual = raiz;
     	int comparacao;
+    	long quantasComparacoes = 0;
+    	long inicioPesquisa = Metrica.iniciar();
     	
-    	comparacoes++;
-    	if (raizArvore == null)
-    		/// Se a raiz da árvore ou sub-árvore for null, a árvore/sub-árvore está vazia e então o item não foi encontrado.
-    		throw new NoSuchElementException("O item não foi localizado na árvore!");
-    	
-    	comparacao = comparador.compare(procurado, raizArvore.getChave());
+    	while (atual != null) {
+    		quantasComparacoes++;
+    		comparacao = comparador.compare(chave, atual.getChave());
+    		
+    		if (comparacao == 0) {
+    			/// O item procurado foi encontrado.
+    			duracao = metricaPesquisa.registrarDesde(inicioPesquisa, quantasComparacoes, true);
+    			comparacoes = quantasComparacoes;
+    			return atual;
+    		} else if (comparacao < 0)
+    			/// Se o item procurado for menor do que o item armazenado no nó atual:
+    			/// continue a pesquisa pela sub-árvore esquerda.
+    			atual = atual.getEsquerda();
+    		else
+    			/// Se o item procurado for maior do que o item armazenado no nó atual:
+    			/// continue a pesquisa pela sub-árvore direita.
+    			atual = atual.getDireita();
+    	}
     	
-    	if (comparacao == 0)
-    		/// O item procurado foi encontrado.
-    		return raizArvore.getItem();
-    	else if (comparacao < 0)
-    		/// Se o item procurado for menor do que o item armazenado na raiz da árvore:
-            /// pesquise esse item na sub-árvore esquerda.    
-    		return pesquisar(raizArvore.getEsquerda(), procurado);
-    	else
-    		/// Se o item procurado for maior do que o item armazenado na raiz da árvore:
-            /// pesquise esse item na sub-árvore direita.
-    		return pesquisar(raizArvore.getDireita(), procurado);
-    }
+    	/// A pesquisa chegou a uma sub-árvore vazia e então o item não foi encontrado.
+    	quantasComparacoes++;
+    	duracao = metricaPesquisa.registrarDesde(inicioPesquisa, quantasComparacoes, false);
+    	comparacoes = quantasComparacoes;
+    	return null;
+	}
     
     @Override
     /**
-     * Método que encapsula a adição recursiva de itens à árvore, associando-o à chave fornecida.
+     * Método que adiciona um item à árvore, associando-o à chave fornecida, e registra a inserção
+     * na métrica das inserções. A inserção propriamente dita é feita por {@link #inserirNaArvore(Object, Object)}.
      * @param chave a chave associada ao item que será inserido na árvore.
      * @param item o item que será inserido na árvore.
      * 
      * @return o tamanho atualizado da árvore após a execução da operação de inserção.
+     * @throws IllegalArgumentException se um item com a mesma chave já estiver presente na árvore.
      */
     public int inserir(K chave, V item) {
-    	/// Chama o método recursivo "inserir", responsável por adicionar, o item passado como parâmetro, à árvore.
-        /// O método "inserir" recursivo receberá, como primeiro parâmetro, a raiz atual da árvore; 
-    	/// como segundo parâmetro, a chave do item que será adicionado à árvore; e como terceiro parâmetro, o item.
-        /// Por fim, a raiz atual da árvore é atualizada, com a raiz retornada pelo método "inserir" recursivo.
-        this.raiz = inserir(this.raiz, chave, item);
+    	
+    	long inicioInsercao = Metrica.iniciar();
+    	int tamanhoAtualizado;
+    	
+    	try {
+    		tamanhoAtualizado = inserirNaArvore(chave, item);
+    	} catch (IllegalArgumentException excecao) {
+    		/// A chave já estava presente: a inserção é registrada como uma chave encontrada.
+    		metricaInsercao.registrarDesde(inicioInsercao, 0, true);
+    		throw excecao;
+    	}
+    	metricaInsercao.registrarDesde(inicioInsercao, 0, false);
+    	return tamanhoAtualizado;
+    }
+    
+    /**
+     * Método que adiciona, de forma iterativa, um item à árvore, associando-o à chave fornecida.
+     * @param chave a chave associada ao item que será inserido na árvore.
+     * @param item o item que será inserido na árvore.
+     * 
+     * @return o tamanho atualizado da árvore após a execução da operação de inserção.
+     * @throws IllegalArgumentException se um item com a mesma chave já estiver presente na árvore.
+     */
+    protected int inserirNaArvore(K chave, V item) {
+    	
+    	No<K, V> pai = null;
+    	No<K, V> atual = raiz;
+    	No<K, V> novo;
+    	int comparacao = 0;
+    	
+    	/// Desce pela árvore até a sub-árvore vazia em que o novo item deverá ser adicionado,
+    	/// guardando o nó que será o pai do novo nó e contando o novo nó nas sub-árvores visitadas.
+    	while (atual != null) {
+    		comparacao = comparador.compare(chave, atual.getChave());
+    		
+    		if (comparacao == 0) {
+    			/// A chave do item armazenado no nó atual é igual à chave do novo item.
+    			ajustarTamanhos(chave, -1);
+    			throw new IllegalArgumentException("O item já foi inserido anteriormente na árvore.");
+    		}
+    		
+    		atual.setTamanho(atual.getTamanho() + 1);
+    		pai = atual;
+    		atual = (comparacao < 0) ? atual.getEsquerda() : atual.getDireita();
+    	}
+    	
+    	novo = criarNo(chave, item);
+    	if (pai == null)
+    		raiz = novo;
+    	else if (comparacao < 0)
+    		pai.setEsquerda(novo);
+    	else
+    		pai.setDireita(novo);
+    	
         tamanho++;
         return tamanho;
     }
 
     /**
-     * Método recursivo responsável por adicionar um item à árvore.
-     * @param raizArvore a raiz da árvore ou sub-árvore em que o item será adicionado.
-     * @param chave a chave associada ao item que deverá ser inserido.
-     * @param item o item que deverá ser adicionado à árvore.
-     * @return a raiz atualizada da árvore ou sub-árvore em que o item foi adicionado.
-     * @throws RuntimeException se um item com a mesma chave já estiver presente na árvore.
+     * Soma o valor informado ao tamanho das sub-árvores dos nós do caminho da raiz até a chave,
+     * sem incluir o nó que a contém. Usado para desfazer o ajuste feito durante uma descida interrompida.
      */
-    protected No<K, V> inserir(No<K, V> raizArvore, K chave, V item) {
+    private void ajustarTamanhos(K chave, int ajuste) {
     	
+    	No<K, V> atual = raiz;
     	int comparacao;
     	
-        /// Se a raiz da árvore ou sub-árvore for null, a árvore/sub-árvore está vazia e então um novo item é inserido.
-        if (raizArvore == null)
-            raizArvore = new No<>(chave, item);
-        else {
-        	comparacao = comparador.compare(chave, raizArvore.getChave());
-        
-        	if (comparacao < 0)
-        		/// Se a chave do item que deverá ser inserido na árvore for menor do que 
-        		/// a chave do item armazenado na raiz da árvore:
-        		/// adicione esse novo item à sub-árvore esquerda; 
-        		/// e atualize a referência para a sub-árvore esquerda modificada. 
-        		raizArvore.setEsquerda(inserir(raizArvore.getEsquerda(), chave, item));
-        	else if (comparacao > 0)
-        		/// Se a chave do item que deverá ser inserido na árvore for maior do que 
-        		/// a chave do item armazenado na raiz da árvore:
-        		/// adicione esse novo item à sub-árvore direita; 
-        		/// e atualize a referência para a sub-árvore direita modificada.
-        		raizArvore.setDireita(inserir(raizArvore.getDireita(), chave, item));
-        	else
-        		/// A chave do item armazenado na raiz da árvore 
-        		/// é igual à chave do novo item que deveria ser inserido na árvore.
-        		throw new IllegalArgumentException("O item já foi inserido anteriormente na árvore.");
-        }
-        
-        /// Retorna a raiz atualizada da árvore ou sub-árvore em que o item foi adicionado.
-        return raizArvore;
+    	while ((atual != null) && ((comparacao = comparador.compare(chave, atual.getChave())) != 0)) {
+    		atual.setTamanho(atual.getTamanho() + ajuste);
+    		atual = (comparacao < 0) ? atual.getEsquerda() : atual.getDireita();
+    	}
+    }
+    
+    /**
+     * Substitui, no nó pai, a referência a um de seus filhos.
+     * @param pai o nó pai, ou {@code null} se o filho substituído for a raiz da árvore.
+     * @param antigo o filho que será substituído.
+     * @param novo o nó que ocupará o lugar do filho substituído.
+     */
+    protected void substituirFilho(No<K, V> pai, No<K, V> antigo, No<K, V> novo) {
+    	
+    	if (pai == null)
+    		raiz = novo;
+    	else if (pai.getEsquerda() == antigo)
+    		pai.setEsquerda(novo);
+    	else
+    		pai.setDireita(novo);
+    }
+
+    private int tamanhoSubarvore(No<K, V> no) {
+    	return (no == null) ? 0 : no.getTamanho();
+    }
+    
+    /**
+     * Retorna a posição que a chave ocupa (ou ocuparia) na ordem crescente das chaves da árvore,
+     * isto é, a quantidade de chaves da árvore menores do que ela (operação conhecida como "rank").
+     * Cada nó guarda o tamanho de sua sub-árvore, o que permite responder em O(log n) numa árvore balanceada.
+     * @param chave a chave de referência, que não precisa estar na árvore.
+     * @return a quantidade de chaves menores do que a informada.
+     */
+    public int posicao(K chave) {
+    	
+    	No<K, V> atual = raiz;
+    	int posicao = 0;
+    	int comparacao;
+    	
+    	while (atual != null) {
+    		comparacao = comparador.compare(chave, atual.getChave());
+    		if (comparacao < 0)
+    			atual = atual.getEsquerda();
+    		else if (comparacao > 0) {
+    			/// O nó atual e toda a sua sub-árvore esquerda têm chaves menores.
+    			posicao += tamanhoSubarvore(atual.getEsquerda()) + 1;
+    			atual = atual.getDireita();
+    		} else
+    			return posicao + tamanhoSubarvore(atual.getEsquerda());
+    	}
+    	return posicao;
+    }
+    
+    /**
+     * Retorna o item que ocupa a posição informada na ordem crescente das chaves da árvore
+     * (operação conhecida como "select"): a posição 0 é a do item de menor chave.
+     * @param posicao a posição do item desejado, entre 0 e tamanho() - 1.
+     * @return o item da posição informada.
+     * @throws IndexOutOfBoundsException se a posição for inválida.
+     */
+    public V selecionar(int posicao) {
+    	
+    	No<K, V> atual = raiz;
+    	int tamanhoEsquerda;
+    	
+    	if ((posicao < 0) || (posicao >= tamanho))
+    		throw new IndexOutOfBoundsException("Não foi possível selecionar o item: "
+    				+ "a posição informada é inválida!");
+    	
+    	while (true) {
+    		tamanhoEsquerda = tamanhoSubarvore(atual.getEsquerda());
+    		if (posicao < tamanhoEsquerda)
+    			atual = atual.getEsquerda();
+    		else if (posicao > tamanhoEsquerda) {
+    			posicao -= tamanhoEsquerda + 1;
+    			atual = atual.getDireita();
+    		} else
+    			return atual.getItem();
+    	}
+    }
+    
+    /**
+     * Retorna o item de menor chave da árvore.
+     * @return o item de menor chave.
+     * @throws NoSuchElementException se a árvore estiver vazia.
+     */
+    public V minimo() {
+    	
+    	No<K, V> atual = raiz;
+    	
+    	if (atual == null)
+    		throw new NoSuchElementException("A árvore está vazia!");
+    	
+    	while (atual.getEsquerda() != null)
+    		atual = atual.getEsquerda();
+    	return atual.getItem();
+    }
+    
+    /**
+     * Retorna o item de maior chave da árvore.
+     * @return o item de maior chave.
+     * @throws NoSuchElementException se a árvore estiver vazia.
+     */
+    public V maximo() {
+    	
+    	No<K, V> atual = raiz;
+    	
+    	if (atual == null)
+    		throw new NoSuchElementException("A árvore está vazia!");
+    	
+    	while (atual.getDireita() != null)
+    		atual = atual.getDireita();
+    	return atual.getItem();
+    }
+    
+    /**
+     * Retorna o item de maior chave dentre as chaves menores ou iguais à chave informada.
+     * @param chave a chave de referência.
+     * @return o item encontrado.
+     * @throws NoSuchElementException se todas as chaves da árvore forem maiores do que a chave informada.
+     */
+    public V piso(K chave) {
+    	
+    	No<K, V> atual = raiz;
+    	No<K, V> candidato = null;
+    	int comparacao;
+    	
+    	while (atual != null) {
+    		comparacao = comparador.compare(chave, atual.getChave());
+    		if (comparacao == 0)
+    			return atual.getItem();
+    		else if (comparacao < 0)
+    			atual = atual.getEsquerda();
+    		else {
+    			/// A chave do nó atual é menor do que a de referência: ele é candidato,
+    			/// mas pode haver chave maior, ainda menor do que a de referência, à direita.
+    			candidato = atual;
+    			atual = atual.getDireita();
+    		}
+    	}
+    	
+    	if (candidato == null)
+    		throw new NoSuchElementException("Não há item com chave menor ou igual à informada.");
+    	return candidato.getItem();
+    }
+    
+    /**
+     * Retorna o item de menor chave dentre as chaves maiores ou iguais à chave informada.
+     * @param chave a chave de referência.
+     * @return o item encontrado.
+     * @throws NoSuchElementException se todas as chaves da árvore forem menores do que a chave informada.
+     */
+    public V teto(K chave) {
+    	
+    	No<K, V> atual = raiz;
+    	No<K, V> candidato = null;
+    	int comparacao;
+    	
+    	while (atual != null) {
+    		comparacao = comparador.compare(chave, atual.getChave());
+    		if (comparacao == 0)
+    			return atual.getItem();
+    		else if (comparacao > 0)
+    			atual = atual.getDireita();
+    		else {
+    			/// A chave do nó atual é maior do que a de referência: ele é candidato,
+    			/// mas pode haver chave menor, ainda maior do que a de referência, à esquerda.
+    			candidato = atual;
+    			atual = atual.getEsquerda();
+    		}
+    	}
+    	
+    	if (candidato == null)
+    		throw new NoSuchElementException("Não há item com chave maior ou igual à informada.");
+    	return candidato.getItem();
+    }
+    
+    /**
+     * Retorna um iterador que percorre, em ordem crescente de chave, todos os pares chave-item da árvore.
+     * O caminhamento é feito sob demanda: cada avanço visita apenas os nós necessários para chegar ao próximo item.
+     * A árvore não deve ser modificada enquanto o iterador estiver em uso.
+     */
+    @Override
+    public Iterator<Entrada<K, V>> iterator() {
+    	return new IteradorEmOrdem(null, null);
+    }
+    
+    @Override
+    public Spliterator<Entrada<K, V>> spliterator() {
+    	return Spliterators.spliterator(iterator(), tamanho,
+    			Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.SIZED);
+    }
+    
+    /**
+     * Retorna os pares chave-item cujas chaves estão no intervalo [inicio, fim), em ordem crescente de chave.
+     * Apenas os nós do caminho até o início do intervalo e os nós do próprio intervalo são visitados,
+     * de modo que percorrer k itens custa O(log n + k) numa árvore balanceada.
+     * Por exemplo, as descrições que começam com "Cola" estão no intervalo ["Cola", "Colb").
+     * @param inicio a menor chave do intervalo (inclusive), ou {@code null} para começar na menor chave da árvore.
+     * @param fim a chave que encerra o intervalo (exclusive), ou {@code null} para ir até a maior chave da árvore.
+     * @return um {@link Iterable} que percorre o intervalo sob demanda.
+     */
+    public Iterable<Entrada<K, V>> intervalo(K inicio, K fim) {
+    	return () -> new IteradorEmOrdem(inicio, fim);
+    }
+    
+    /**
+     * Iterador do caminhamento em ordem, com uma pilha explícita dos nós cujas sub-árvores esquerdas
+     * já foram (ou estão sendo) visitadas, mas que ainda não foram retornados.
+     */
+    private class IteradorEmOrdem implements Iterator<Entrada<K, V>> {
+    	
+    	private final ArrayDeque<No<K, V>> pilha = new ArrayDeque<>();
+    	private final K fim;
+    	
+    	private IteradorEmOrdem(K inicio, K fim) {
+    		
+    		No<K, V> atual = raiz;
+    		
+    		this.fim = fim;
+    		/// Desce até o início do intervalo, empilhando apenas os nós com chave maior ou igual a ele.
+    		while (atual != null) {
+    			if ((inicio == null) || (comparador.compare(atual.getChave(), inicio) >= 0)) {
+    				pilha.push(atual);
+    				atual = atual.getEsquerda();
+    			} else {
+    				atual = atual.getDireita();
+    			}
+    		}
+    	}
+    	
+    	@Override
+    	public boolean hasNext() {
+    		return !pilha.isEmpty() && ((fim == null) || (comparador.compare(pilha.peek().getChave(), fim) < 0));
+    	}
+    	
+    	@Override
+    	public Entrada<K, V> next() {
+    		
+    		No<K, V> proximo, atual;
+    		
+    		if (!hasNext())
+    			throw new NoSuchElementException("Não há mais itens a percorrer.");
+    		
+    		proximo = pilha.pop();
+    		atual = proximo.getDireita();
+    		while (atual != null) {
+    			pilha.push(atual);
+    			atual = atual.getEsquerda();
+    		}
+    		return new Entrada<>(proximo.getChave(), proximo.getItem());
+    	}
     }
 
     @Override 
@@ -189,130 +596,119 @@ public class ABB<K, V> implements IMapeamento<K, V>{
     }
 
     @Override
-    public String percorrer() {
-    	return caminhamentoEmOrdem();
+    public void percorrer(Appendable destino) throws IOException {
+    	caminhamentoEmOrdem(destino);
     }
 
     public String caminhamentoEmOrdem() {
+    	return percorrer();
+    }
+
+    /**
+     * Escreve no destino os itens da árvore, um por linha, em ordem crescente de chave.
+     * O caminhamento é iterativo, com uma pilha explícita, e cada item é escrito assim que visitado,
+     * sem concatenação de Strings intermediárias: o custo é linear na quantidade de caracteres escritos.
+     * @param destino onde os itens serão escritos.
+     * @throws IllegalStateException se a árvore estiver vazia.
+     * @throws IOException se ocorrer um erro de escrita no destino.
+     */
+    public void caminhamentoEmOrdem(Appendable destino) throws IOException {
+    	
+    	ArrayDeque<No<K, V>> pilha = new ArrayDeque<>();
+    	No<K, V> atual = raiz;
     	
     	if (vazia())
     		throw new IllegalStateException("A árvore está vazia!");
     	
-    	return caminhamentoEmOrdem(raiz);
-    }
-
-    private String caminhamentoEmOrdem(No<K, V> raizArvore) {
-    	if (raizArvore != null) {
-    		String resposta = caminhamentoEmOrdem(raizArvore.getEsquerda());
-    		resposta += raizArvore.getItem() + "\n";
-    		resposta += caminhamentoEmOrdem(raizArvore.getDireita());
-    		
-    		return resposta;
-    	} else {
-    		return "";
+    	while ((atual != null) || !pilha.isEmpty()) {
+    		while (atual != null) {
+    			pilha.push(atual);
+    			atual = atual.getEsquerda();
+    		}
+    		atual = pilha.pop();
+    		destino.append(String.valueOf(atual.getItem())).append("\n");
+    		atual = atual.getDireita();
     	}
     }
 
     @Override
     /**
-     * Método que encapsula a remoção recursiva de um item da árvore.
+     * Método que retira um item da árvore e registra a remoção na métrica das remoções.
+     * A remoção propriamente dita é feita por {@link #removerDaArvore(Object)}.
      * @param chave a chave do item que deverá ser localizado e removido da árvore.
      * @return o valor associado ao item removido.
+     * @throws NoSuchElementException se o item não estiver presente na árvore.
      */
     public V remover(K chave) {
     	
-    	V removido = pesquisar(chave);
+    	long inicioRemocao = Metrica.iniciar();
+    	V removido;
     	
-    	/// Chama o método recursivo "remover", que será responsável por 
-    	/// pesquisar o item que apresenta a chave passada como parâmetro na árvore e retirá-lo da árvore.
-        /// O método "remover" recursivo receberá, como primeiro parâmetro, a raiz atual da árvore; 
-    	/// e, como segundo parâmetro, a chave do item que deverá ser localizado e retirado dessa árvore.
-    	/// Por fim, a raiz atual da árvore é atualizada, com a raiz retornada pelo método "remover" recursivo.
-    	raiz = remover(raiz, chave);
-    	tamanho--;
+    	try {
+    		removido = removerDaArvore(chave);
+    	} catch (NoSuchElementException excecao) {
+    		metricaRemocao.registrarDesde(inicioRemocao, 0, false);
+    		throw excecao;
+    	}
+    	metricaRemocao.registrarDesde(inicioRemocao, 0, true);
     	return removido;
     }
 
     /**
-     * Método recursivo responsável por localizar um item na árvore e retirá-lo da árvore.
-     * @param raizArvore a raiz da árvore ou sub-árvore da qual o item será retirado.
-     * @param chaveRemover a chave do item que deverá ser localizado e removido da árvore.
-     * @return a raiz atualizada da árvore ou sub-árvore da qual o item foi retirado.
+     * Método que localiza e retira, de forma iterativa, um item da árvore.
+     * Se o nó que armazena o item possuir descendentes à esquerda e à direita, ele é substituído
+     * pelo seu antecessor: o nó que armazena o item cuja chave é a maior dentre as chaves menores
+     * do que a do item que está sendo retirado. O antecessor, então, é retirado da árvore.
+     * @param chave a chave do item que deverá ser localizado e removido da árvore.
+     * @return o valor associado ao item removido.
      */
-    protected No<K, V> remover(No<K, V> raizArvore, K chaveRemover) {
+    protected V removerDaArvore(K chave) {
     	
+    	No<K, V> pai = null;
+    	No<K, V> atual = raiz;
+    	No<K, V> antecessor;
+    	No<K, V> filho;
+    	V removido;
     	int comparacao;
     	
-        /// Se a raiz da árvore ou sub-árvore for null, a árvore está vazia e o item, que deveria ser retirado dessa árvore, não foi encontrado.
-        /// Nesse caso, deve-se lançar uma exceção.
-        if (raizArvore == null) 
-        	throw new NoSuchElementException("O item a ser removido não foi localizado na árvore!");
-        
-        comparacao = comparador.compare(chaveRemover, raizArvore.getChave());
-        
-        if (comparacao == 0) {
-            /// O item armazenado na raiz da árvore corresponde ao item que deve ser retirado dessa árvore.
-            /// Ou seja, o item que deve ser retirado da árvore foi encontrado.
-        	if (raizArvore.getDireita() == null) {
-        		/// O nó da árvore que será retirado não possui descendentes à direita.
-                /// Nesse caso, os descendentes à esquerda do nó que está sendo retirado da árvore passarão a ser descendentes do nó-pai do nó que está sendo retirado.
-                raizArvore = raizArvore.getEsquerda();
-        	} else if (raizArvore.getEsquerda() == null) {
-                /// O nó da árvore que será retirado não possui descendentes à esquerda.
-                /// Nesse caso, os descendentes à direita do nó que está sendo retirado da árvore passarão a ser descendentes do nó-pai do nó que está sendo retirado.
-                raizArvore = raizArvore.getDireita();
-        	} else {
-            	/// O nó que está sendo retirado da árvore possui descendentes à esquerda e à direita.
-                /// Nesse caso, o antecessor do nó que está sendo retirado é localizado na sub-árvore esquerda desse nó. 
-                /// O antecessor do nó que está sendo retirado da árvore corresponde
-                /// ao nó que armazena o item cuja chave é a maior, 
-                /// dentre as chaves menores do que a do item do nó que está sendo retirado.
-                /// Depois de ser localizado na sub-árvore esquerda do nó que está sendo retirado, 
-                /// o antecessor desse nó o substitui.
-                /// A sub-árvore esquerda do nó que foi retirado é atualizada com a remoção do antecessor.
-                raizArvore.setEsquerda(removerNoAntecessor(raizArvore, raizArvore.getEsquerda()));
-        	}
-        } else if (comparacao < 0)
-        	/// Se a chave do item que deverá ser localizado e retirado da árvore 
-        	/// for menor do que a chave do item armazenado na raiz da árvore:
-        	/// pesquise e retire esse item da sub-árvore esquerda.
-            raizArvore.setEsquerda(remover(raizArvore.getEsquerda(), chaveRemover));
-        else
-        	/// Se a chave do item que deverá ser localizado e retirado da árvore
-        	/// for maior do que a chave do item armazenado na raiz da árvore:
-        	/// pesquise e retire esse item da sub-árvore direita.
-            raizArvore.setDireita(remover(raizArvore.getDireita(), chaveRemover));
-         
-        /// Retorna a raiz atualizada da árvore ou sub-árvore da qual o item foi retirado.
-        return raizArvore;
-    }
-
-    /**
-     * Método recursivo responsável por localizar na árvore ou sub-árvore o antecessor do nó que deverá ser retirado. 
-     * O antecessor do nó que deverá ser retirado da árvore corresponde
-     * ao nó que armazena o item cuja chave é a maior, 
-     * dentre as chaves menores do que a do item que deverá ser retirado.
-     * Depois de ser localizado na árvore ou sub-árvore, 
-     * o antecessor do nó que deverá ser retirado da árvore o substitui.
-     * Adicionalmente, a árvore ou sub-árvore é atualizada com a remoção do antecessor.
-     * @param itemRetirar: referência ao nó que armazena o item que deverá ser retirado da árvore.
-     * @param raizArvore: raiz da árvore ou sub-árvore em que o antecessor do nó que deverá ser retirado deverá ser localizado.
-     * @return a raiz atualizada da árvore ou sub-árvore após a remoção do antecessor do nó que foi retirado da árvore.
-     */
-    protected No<K, V> removerNoAntecessor(No<K, V> itemRetirar, No<K, V> raizArvore) {
-        /// Se o antecessor do nó que deverá ser retirado da árvore ainda não foi encontrado...
-        if (raizArvore.getDireita() != null) {
-            /// Pesquise o antecessor na sub-árvore direita.
-            raizArvore.setDireita(removerNoAntecessor(itemRetirar, raizArvore.getDireita()));
-        } else {
-        	/// O antecessor do nó que deverá ser retirado da árvore foi encontrado e deverá substitui-lo.
-        	itemRetirar.setChave(raizArvore.getChave());
-            itemRetirar.setItem(raizArvore.getItem());
-            /// A raiz da árvore ou sub-árvore é atualizada com os descendentes à esquerda do antecessor.
-            /// Ou seja, retira-se o antecessor da árvore.
-            raizArvore = raizArvore.getEsquerda();
-        }
-        return raizArvore;
+    	/// Na descida, o nó que sairá da árvore deixa de ser contado nas sub-árvores visitadas.
+    	while ((atual != null) && ((comparacao = comparador.compare(chave, atual.getChave())) != 0)) {
+    		atual.setTamanho(atual.getTamanho() - 1);
+    		pai = atual;
+    		atual = (comparacao < 0) ? atual.getEsquerda() : atual.getDireita();
+    	}
+    	
+    	if (atual == null) {
+    		ajustarTamanhos(chave, +1);
+    		throw new NoSuchElementException("O item a ser removido não foi localizado na árvore!");
+    	}
+    	
+    	removido = atual.getItem();
+    	
+    	if ((atual.getEsquerda() != null) && (atual.getDireita() != null)) {
+    		/// O nó que está sendo retirado possui descendentes à esquerda e à direita.
+    		/// Seu antecessor é localizado na sub-árvore esquerda e o substitui; em seguida,
+    		/// o nó do antecessor, que não possui descendentes à direita, é o que sai da árvore.
+    		atual.setTamanho(atual.getTamanho() - 1);
+    		pai = atual;
+    		antecessor = atual.getEsquerda();
+    		while (antecessor.getDireita() != null) {
+    			antecessor.setTamanho(antecessor.getTamanho() - 1);
+    			pai = antecessor;
+    			antecessor = antecessor.getDireita();
+    		}
+    		atual.setChave(antecessor.getChave());
+    		atual.setItem(antecessor.getItem());
+    		atual = antecessor;
+    	}
+    	
+    	/// O nó que sai da árvore possui, no máximo, um descendente,
+    	/// que passa a ser descendente do nó-pai do nó retirado.
+    	filho = (atual.getEsquerda() != null) ? atual.getEsquerda() : atual.getDireita();
+    	substituirFilho(pai, atual, filho);
+    	
+    	tamanho--;
+    	return removido;
     }
 
 	@Override
@@ -327,6 +723,6 @@ public class ABB<K, V> implements IMapeamento<K, V>{
 
 	@Override
 	public double getTempo() {
-		return (termino - inicio) / 1_000_000;
+		return duracao / 1_000_000.0;
 	}
 }
\ No newline at end of file
@@ -1,4 +1,5 @@
 import java.util.Comparator;
+import java.util.NoSuchElementException;
 import java.util.function.Function;
 
 public class AVL<K, V> extends ABB<K, V> {
@@ -20,45 +21,132 @@ public class AVL<K, V> extends ABB<K, V> {
     }
        
     /**
-    * Método recursivo responsável por adicionar um item à árvore.
-    * @param raizArvore: raiz da árvore ou sub-árvore em que o item será adicionado.
-    * @param item: item que deverá ser adicionado à árvore.
-    * @return a raiz atualizada da árvore ou sub-árvore balanceada AVL em que o item foi adicionado.
-    */
-    @Override
-    protected No<K, V> inserir(No<K, V> raizArvore, K chave, V item) {
+     * Cria a pilha usada para guardar o caminho da raiz até o ponto de inserção ou remoção.
+     * Numa árvore AVL, esse caminho tem, no máximo, altura + 1 nós.
+     */
+    @SuppressWarnings("unchecked")
+    private No<K, V>[] novoCaminho() {
     	
-    	return balancear(super.inserir(raizArvore, chave, item));
+    	return new No[(raiz == null) ? 1 : raiz.getAltura() + 2];
     }
     
     /**
-    * Método recursivo responsável por localizar na árvore ou sub-árvore o antecessor do nó que deverá ser retirado. 
-    * O antecessor do nó que deverá ser retirado da árvore corresponde
-    * ao nó que armazena o item que é o maior, 
-    * dentre os itens menores do que o item que deverá ser retirado.
-    * Depois de ser localizado na árvore ou sub-árvore, 
-    * o antecessor do nó que deverá ser retirado da árvore o substitui.
-    * Adicionalmente, a árvore ou sub-árvore balanceada AVL é atualizada com a remoção do antecessor.
-    * @param itemRetirar: referência ao nó que armazena o item que deverá ser retirado da árvore.
-    * @param raizArvore: raiz da árvore ou sub-árvore em que o antecessor do nó que deverá ser retirado deverá ser localizado.
-    * @return a raiz atualizada da árvore ou sub-árvore balanceada AVL após a remoção do antecessor do nó que foi retirado da árvore.
+    * Método que adiciona, de forma iterativa, um item à árvore.
+    * Os nós visitados na descida são guardados numa pilha e, depois da inserção,
+    * são rebalanceados de baixo para cima até que a altura de uma sub-árvore não se altere.
+    * @param chave a chave associada ao item que será inserido na árvore.
+    * @param item o item que será inserido na árvore.
+    * @return o tamanho atualizado da árvore após a execução da operação de inserção.
+    * @throws IllegalArgumentException se um item com a mesma chave já estiver presente na árvore.
     */
     @Override
-    protected No<K, V> removerNoAntecessor(No<K, V> itemRetirar, No<K, V> raizArvore) {
+    protected int inserirNaArvore(K chave, V item) {
+    	
+    	No<K, V>[] caminho = novoCaminho();
+    	int profundidade = 0;
+    	No<K, V> atual = raiz;
+    	No<K, V> novo;
+    	int comparacao = 0;
+    	
+    	while (atual != null) {
+    		comparacao = comparador.compare(chave, atual.getChave());
+    		
+    		if (comparacao == 0)
+    			throw new IllegalArgumentException("O item já foi inserido anteriormente na árvore.");
+    		
+    		caminho[profundidade++] = atual;
+    		atual = (comparacao < 0) ? atual.getEsquerda() : atual.getDireita();
+    	}
+    	
+    	novo = criarNo(chave, item);
+    	if (profundidade == 0)
+    		raiz = novo;
+    	else if (comparacao < 0)
+    		caminho[profundidade - 1].setEsquerda(novo);
+    	else
+    		caminho[profundidade - 1].setDireita(novo);
     	
-        return balancear(super.removerNoAntecessor(itemRetirar, raizArvore));
+    	tamanho++;
+    	retracar(caminho, profundidade);
+    	return tamanho;
     }
-
+    
     /**
-    * Método recursivo responsável por localizar um item na árvore e retirá-lo da árvore.
-    * @param raizArvore: raiz da árvore ou sub-árvore da qual o item será retirado.
-    * @param itemRemover: item que deverá ser localizado e removido da árvore.
-    * @return a raiz atualizada da árvore ou sub-árvore balanceada AVL da qual o item foi retirado.
+    * Método que localiza e retira, de forma iterativa, um item da árvore.
+    * Os nós visitados na descida (incluindo o caminho até o antecessor, quando ele substitui o nó retirado)
+    * são guardados numa pilha e, depois da remoção, são rebalanceados de baixo para cima.
+    * @param chave a chave do item que deverá ser localizado e removido da árvore.
+    * @return o valor associado ao item removido.
     */
     @Override
-    protected No<K, V> remover(No<K, V> raizArvore, K chaveRemover) {
+    protected V removerDaArvore(K chave) {
+    	
+    	No<K, V>[] caminho = novoCaminho();
+    	int profundidade = 0;
+    	No<K, V> atual = raiz;
+    	No<K, V> antecessor;
+    	No<K, V> filho;
+    	V removido;
+    	int comparacao;
+    	
+    	while ((atual != null) && ((comparacao = comparador.compare(chave, atual.getChave())) != 0)) {
+    		caminho[profundidade++] = atual;
+    		atual = (comparacao < 0) ? atual.getEsquerda() : atual.getDireita();
+    	}
+    	
+    	if (atual == null)
+    		throw new NoSuchElementException("O item a ser removido não foi localizado na árvore!");
+    	
+    	removido = atual.getItem();
+    	
+    	if ((atual.getEsquerda() != null) && (atual.getDireita() != null)) {
+    		caminho[profundidade++] = atual;
+    		antecessor = atual.getEsquerda();
+    		while (antecessor.getDireita() != null) {
+    			caminho[profundidade++] = antecessor;
+    			antecessor = antecessor.getDireita();
+    		}
+    		atual.setChave(antecessor.getChave());
+    		atual.setItem(antecessor.getItem());
+    		atual = antecessor;
+    	}
+    	
+    	filho = (atual.getEsquerda() != null) ? atual.getEsquerda() : atual.getDireita();
+    	substituirFilho((profundidade == 0) ? null : caminho[profundidade - 1], atual, filho);
+    	
+    	tamanho--;
+    	retracar(caminho, profundidade);
+    	return removido;
+    }
+    
+    /**
+     * Rebalanceia, de baixo para cima, os nós do caminho percorrido por uma inserção ou remoção,
+     * e atualiza a quantidade de nodos de suas sub-árvores.
+     * O rebalanceamento é interrompido assim que um nó, sem precisar de rotação, mantém a altura que tinha:
+     * nesse caso, as alturas de seus ancestrais não são afetadas pela operação, e deles só se atualiza o tamanho.
+     * @param caminho os nós visitados, da raiz (posição 0) até o pai do nó inserido ou retirado.
+     * @param profundidade a quantidade de nós do caminho.
+     */
+    private void retracar(No<K, V>[] caminho, int profundidade) {
+    	
+    	No<K, V> no, balanceado;
+    	int alturaAnterior;
+    	boolean rebalancear = true;
     	
-    	return balancear(super.remover(raizArvore, chaveRemover));
+    	for (int i = profundidade - 1; i >= 0; i--) {
+    		no = caminho[i];
+    		no.setTamanho();
+    		
+    		if (rebalancear) {
+    			alturaAnterior = no.getAltura();
+    			balanceado = balancear(no);
+    			
+    			if (balanceado != no)
+    				substituirFilho((i == 0) ? null : caminho[i - 1], no, balanceado);
+    			else if (balanceado.getAltura() == alturaAnterior)
+    				rebalancear = false;
+    		}
+    	}
     }
 
     private No<K, V> balancear(No<K, V> raizArvore) {
@@ -107,6 +195,8 @@ public class AVL<K, V> extends ABB<K, V> {
 		
 		p.setAltura();
 		u.setAltura();
+		p.setTamanho();
+		u.setTamanho();
 		
 		return u;
 	}
@@ -124,6 +214,8 @@ public class AVL<K, V> extends ABB<K, V> {
 		
 		p.setAltura();
 		z.setAltura();
+		p.setTamanho();
+		z.setTamanho();
 		
 		return z;
 	}
@@ -1,22 +1,29 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.Charset;
-import java.time.LocalDate;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.NoSuchElementException;
-import java.util.Random;
 import java.util.Scanner;
 import java.util.function.Function;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 
 public class App {
 
     static String nomeArquivoDados;
     static Scanner teclado;
     static int quantosProdutos = 0;
+    static final long SEMENTE_PEDIDOS = 42;
+    static final String NOME_ARQUIVO_INSTANTANEO = "catalogo.bin";
+    static final String NOME_ARQUIVO_METRICAS = "metricas.txt";
+    static final Duration INTERVALO_METRICAS = Duration.ofMinutes(1);
     static AVL<String, Produto> produtosBalanceadosPorNome;
     static AVL<Integer, Produto> produtosBalanceadosPorId;
-    static TabelaHash<Produto, Lista<Pedido>> pedidosPorProduto;
+    static IndiceEstatico<Integer, Produto> produtosPorId;
+    static TabelaHashInt<Produto> tabelaProdutosPorId;
+    static TabelaHashConcorrente<Produto, ListaIndexada<Pedido>> pedidosPorProduto;
+    static IndiceInvertido indicePedidos;
     
     static void limparTela() {
         System.out.print("\033[H\033[2J");
@@ -49,6 +56,10 @@ public class App {
         cabecalho();
         System.out.println("1 - Procurar produto, por id");
         System.out.println("2 - Gravar, em arquivo, pedidos de um produto");
+        System.out.println("3 - Gravar, em arquivo, pedidos de todos os produtos");
+        System.out.println("4 - Produtos mais comprados junto com um produto");
+        System.out.println("5 - Pedidos que contêm dois produtos");
+        System.out.println("6 - Métricas das estruturas");
         System.out.println("0 - Sair");
         System.out.print("Digite sua opção: ");
         try {
@@ -59,49 +70,72 @@ public class App {
     }
     
     static <K> AVL<K, Produto> lerProdutos(String nomeArquivoDados, Function<Produto, K> extratorDeChave) {
-        Scanner arquivo = null;
-        int numProdutos;
-        String linha;
-        Produto produto;
-        AVL<K, Produto> produtosCadastrados;
-        K chave;
-        
         try {
-            arquivo = new Scanner(new File(nomeArquivoDados), Charset.forName("UTF-8"));
-            numProdutos = Integer.parseInt(arquivo.nextLine());
-            produtosCadastrados = new AVL<K, Produto>();
-            
-            for (int i = 0; i < numProdutos; i++) {
-                linha = arquivo.nextLine();
-                produto = Produto.criarDoTexto(linha);
-                chave = extratorDeChave.apply(produto);
-                produtosCadastrados.inserir(chave, produto);
-            }
-            quantosProdutos = numProdutos;
-            
+            return indexarProdutos(new CarregadorProdutos().carregar(nomeArquivoDados), extratorDeChave);
         } catch (IOException excecaoArquivo) {
-            produtosCadastrados = null;
-        } finally {
-            if (arquivo != null) arquivo.close();
+            return null;
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    static <K> AVL<K, Produto> indexarProdutos(Produto[] produtos, Function<Produto, K> extratorDeChave) {
+        AVL<K, Produto> produtosCadastrados = new AVL<K, Produto>();
+        Entrada<K, Produto>[] entradas = new Entrada[produtos.length];
+        
+        for (int i = 0; i < produtos.length; i++) {
+            entradas[i] = new Entrada<>(extratorDeChave.apply(produtos[i]), produtos[i]);
         }
+        produtosCadastrados.carregar(entradas);
+        quantosProdutos = produtos.length;
         return produtosCadastrados;
     }
     
-    static <K> Produto localizarProduto(ABB<K, Produto> produtosCadastrados, K procurado) {
+    /**
+     * Lê o instantâneo gravado na execução anterior, se houver um compatível com o arquivo de produtos.
+     * @return o instantâneo, ou null se ele não existir ou não puder ser usado.
+     */
+    static InstantaneoCatalogo lerInstantaneo() {
+        if (!Files.exists(Path.of(NOME_ARQUIVO_INSTANTANEO)))
+            return null;
+        try {
+            return InstantaneoCatalogo.ler(Path.of(NOME_ARQUIVO_INSTANTANEO), Path.of(nomeArquivoDados));
+        } catch (IOException excecao) {
+            System.out.println("Instantâneo descartado: " + excecao.getMessage());
+            return null;
+        }
+    }
+    
+    static void gravarInstantaneo(Lista<Pedido> pedidos) {
+        Produto[] produtos = new Produto[quantosProdutos];
+        int i = 0;
+        
+        for (Entrada<Integer, Produto> entrada : produtosBalanceadosPorId)
+            produtos[i++] = entrada.getValor();
+        try {
+            InstantaneoCatalogo.gravar(Path.of(NOME_ARQUIVO_INSTANTANEO), Path.of(nomeArquivoDados), produtos, pedidos);
+        } catch (IOException excecao) {
+            System.out.println("Não foi possível gravar o instantâneo: " + excecao.getMessage());
+        }
+    }
+    
+    static <K> Produto localizarProduto(IMapeamento<K, Produto> produtosCadastrados, K procurado) {
         Produto produto;
+        long inicio;
         cabecalho();
         System.out.println("Localizando um produto...");
+        /// A estrutura só cronometra uma amostra das pesquisas; a pesquisa pedida pelo usuário é sempre cronometrada aqui.
+        inicio = System.nanoTime();
         try {
             produto = produtosCadastrados.pesquisar(procurado);
         } catch (NoSuchElementException excecao) {
             produto = null;
         }
         System.out.println("Número de comparações realizadas: " + produtosCadastrados.getComparacoes());
-        System.out.println("Tempo de processamento da pesquisa: " + produtosCadastrados.getTempo() + " ms");
+        System.out.println("Tempo de processamento da pesquisa: " + (System.nanoTime() - inicio) / 1_000_000.0 + " ms");
         return produto;
     }
     
-    static Produto localizarProdutoID(ABB<Integer, Produto> produtosCadastrados) {
+    static Produto localizarProdutoID(IMapeamento<Integer, Produto> produtosCadastrados) {
         Integer idProduto = lerOpcao("Digite o identificador do produto desejado: ", Integer.class);
         if (idProduto == null) return null;
         return localizarProduto(produtosCadastrados, idProduto);
@@ -123,44 +157,18 @@ public class App {
         System.out.println(mensagem);
     }
     
-    private static void inserirNaTabela(Produto produto, Pedido pedido) {
-        Lista<Pedido> pedidosDoProduto;
-        try {
-            pedidosDoProduto = pedidosPorProduto.pesquisar(produto);
-        } catch (NoSuchElementException excecao) {
-            pedidosDoProduto = new Lista<>();
-            pedidosPorProduto.inserir(produto, pedidosDoProduto);
-        }
-        pedidosDoProduto.inserirFinal(pedido);
+    private static Lista<Pedido> gerarPedidos(int quantidade) {
+        return gerarPedidos(quantidade, Runtime.getRuntime().availableProcessors());
     }
 
-    private static Lista<Pedido> gerarPedidos(int quantidade) {
-        Lista<Pedido> pedidos = new Lista<>();
-        Random sorteio = new Random(42);
-        int quantProdutos;
-        int formaDePagamento;
-        for (int i = 0; i < quantidade; i++) {
-            formaDePagamento = sorteio.nextInt(2) + 1;
-            Pedido pedido = new Pedido(LocalDate.now(), formaDePagamento);
-            quantProdutos = sorteio.nextInt(8) + 1;
-            for (int j = 0; j < quantProdutos; j++) {
-                int id = sorteio.nextInt(7750) + 10_000;
-                try {
-                    Produto produto = produtosBalanceadosPorId.pesquisar(id);
-                    pedido.incluirProduto(produto);
-                    inserirNaTabela(produto, pedido);
-                } catch (NoSuchElementException e) {
-                   
-                }
-            }
-            pedidos.inserirFinal(pedido);
-        }
-        return pedidos;
+    private static Lista<Pedido> gerarPedidos(int quantidade, int quantasThreads) {
+        GeradorPedidos gerador = new GeradorPedidos(tabelaProdutosPorId, 10_000, quantosProdutos, DiaComercial.hoje());
+        return gerador.gerar(quantidade, SEMENTE_PEDIDOS, quantasThreads, pedidosPorProduto);
     }
     
     static void pedidosDoProduto() {
-        Lista<Pedido> pedidosDoProduto;
-        Produto produto = localizarProdutoID(produtosBalanceadosPorId);
+        ListaIndexada<Pedido> pedidosDoProduto;
+        Produto produto = localizarProdutoID(produtosPorId);
         
         if (produto == null) {
             System.out.println("Produto não encontrado.");
@@ -170,10 +178,13 @@ public class App {
         String nomeArquivo = "RelatorioProduto" + produto.hashCode() + ".txt";  
         
         try {
+            long inicio = System.nanoTime();
             pedidosDoProduto = pedidosPorProduto.pesquisar(produto);
-            FileWriter arquivoRelatorio = new FileWriter(nomeArquivo, Charset.forName("UTF-8"));
-            arquivoRelatorio.append(pedidosDoProduto.toString() + "\n");
-            arquivoRelatorio.close();
+            System.out.println("Número de posições examinadas na tabela de pedidos: " + pedidosPorProduto.getComparacoes());
+            System.out.println("Tempo de processamento da pesquisa na tabela de pedidos: " + (System.nanoTime() - inicio) / 1_000_000.0 + " ms");
+            try (RelatorioPedidos relatorio = new RelatorioPedidos(nomeArquivo)) {
+                relatorio.gravarPedidosDoProduto(pedidosDoProduto);
+            }
             System.out.println("Dados salvos em " + nomeArquivo);
         } catch (NoSuchElementException e) {
             System.out.println("Nenhum pedido encontrado para este produto.");
@@ -182,28 +193,123 @@ public class App {
         }
     }
     
+    static void pedidosDeTodosOsProdutos() {
+        String nomeArquivo = "RelatorioTodosOsProdutos.txt";
+        int produtosGravados;
+        long inicio, termino;
+
+        cabecalho();
+        System.out.println("Gravando os pedidos de todos os produtos...");
+        inicio = System.nanoTime();
+        try (RelatorioPedidos relatorio = new RelatorioPedidos(nomeArquivo)) {
+            produtosGravados = relatorio.gravarTodosOsProdutos(produtosBalanceadosPorId, pedidosPorProduto);
+            termino = System.nanoTime();
+            System.out.println(relatorio.getPedidosGravados() + " pedidos de " + produtosGravados + " produtos gravados em "
+                    + (termino - inicio) / 1_000_000.0 + " ms");
+            System.out.println("Dados salvos em " + nomeArquivo);
+        } catch (IOException excecao) {
+            System.out.println("Problemas para criar o arquivo " + nomeArquivo + ". Tente novamente");
+        }
+    }
+    
+    static void compradosJunto() {
+        Entrada<Integer, Integer>[] maisComprados;
+        long inicio, termino;
+        Integer idProduto = lerOpcao("Digite o identificador do produto desejado: ", Integer.class);
+        
+        if (idProduto == null) return;
+        cabecalho();
+        inicio = System.nanoTime();
+        maisComprados = indicePedidos.maisCompradosCom(idProduto, 10);
+        termino = System.nanoTime();
+        
+        System.out.println("Produto presente em " + indicePedidos.quantidadePedidosCom(idProduto) + " pedidos.");
+        System.out.println("Produtos mais comprados junto com ele:");
+        for (Entrada<Integer, Integer> comprado : maisComprados) {
+            System.out.println(comprado.getValor() + " pedidos - " + tabelaProdutosPorId.pesquisar(comprado.getChave().intValue()));
+        }
+        System.out.println("Tempo de processamento da consulta: " + (termino - inicio) / 1_000_000.0 + " ms");
+    }
+    
+    static void pedidosComDoisProdutos() {
+        int[] pedidosEmComum;
+        long inicio, termino;
+        Integer primeiro = lerOpcao("Digite o identificador do primeiro produto: ", Integer.class);
+        Integer segundo = lerOpcao("Digite o identificador do segundo produto: ", Integer.class);
+        
+        if ((primeiro == null) || (segundo == null)) return;
+        cabecalho();
+        inicio = System.nanoTime();
+        pedidosEmComum = indicePedidos.pedidosComTodos(primeiro, segundo);
+        termino = System.nanoTime();
+        
+        System.out.println(pedidosEmComum.length + " pedidos contêm os dois produtos.");
+        for (int idPedido : pedidosEmComum) {
+            System.out.println("Pedido " + idPedido);
+        }
+        System.out.println("Tempo de processamento da consulta: " + (termino - inicio) / 1_000_000.0 + " ms");
+    }
+    
+    static void mostrarMetricas() {
+        cabecalho();
+        try {
+            RegistroMetricas.gravar(System.out);
+        } catch (IOException e) {
+            System.out.println("Não foi possível mostrar as métricas: " + e.getMessage());
+        }
+    }
+
     public static void main(String[] args) {
         teclado = new Scanner(System.in, Charset.forName("UTF-8"));
         nomeArquivoDados = "produtos.txt";
-        produtosBalanceadosPorId = lerProdutos(nomeArquivoDados, Produto::hashCode);
+        InstantaneoCatalogo instantaneo = lerInstantaneo();
+        if (instantaneo != null) {
+            produtosBalanceadosPorId = indexarProdutos(instantaneo.getProdutos(), Produto::hashCode);
+        } else {
+            produtosBalanceadosPorId = lerProdutos(nomeArquivoDados, Produto::hashCode);
+        }
         
         if (produtosBalanceadosPorId != null) {
             produtosBalanceadosPorNome = new AVL<>(produtosBalanceadosPorId, produto -> produto.descricao, String::compareTo);
-            pedidosPorProduto = new TabelaHash<>((int)(quantosProdutos * 1.50));
+            produtosPorId = new IndiceEstatico<>(produtosBalanceadosPorId);
+            tabelaProdutosPorId = new TabelaHashInt<>(quantosProdutos);
+            for (Entrada<Integer, Produto> entrada : produtosBalanceadosPorId.entradasEmOrdem())
+                tabelaProdutosPorId.inserir(entrada.getChave().intValue(), entrada.getValor());
+            pedidosPorProduto = new TabelaHashConcorrente<>(quantosProdutos);
             
-            System.out.println("Gerando pedidos...");
-            gerarPedidos(25_000);
-            System.out.println("Pedidos gerados.");
+            Lista<Pedido> pedidos;
+            if (instantaneo != null) {
+                pedidos = instantaneo.getPedidos();
+                instantaneo.registrarPedidos(pedidosPorProduto);
+                System.out.println("Produtos e pedidos carregados do instantâneo " + NOME_ARQUIVO_INSTANTANEO + ".");
+            } else {
+                System.out.println("Gerando pedidos...");
+                pedidos = gerarPedidos(25_000);
+                gravarInstantaneo(pedidos);
+                System.out.println("Pedidos gerados.");
+            }
+            indicePedidos = new IndiceInvertido(pedidos);
+            Closeable gravacaoMetricas = RegistroMetricas.gravarPeriodicamente(Path.of(NOME_ARQUIVO_METRICAS), INTERVALO_METRICAS);
         
             int opcao = -1;
             do {
                 opcao = menu();
                 switch (opcao) {
-                    case 1 -> mostrarProduto(localizarProdutoID(produtosBalanceadosPorId));
+                    case 1 -> mostrarProduto(localizarProdutoID(produtosPorId));
                     case 2 -> pedidosDoProduto(); 
+                    case 3 -> pedidosDeTodosOsProdutos();
+                    case 4 -> compradosJunto();
+                    case 5 -> pedidosComDoisProdutos();
+                    case 6 -> mostrarMetricas();
                 }
                 pausa();
             } while(opcao != 0);       
+
+            try {
+                gravacaoMetricas.close();
+            } catch (IOException e) {
+                System.out.println("Não foi possível gravar as métricas em " + NOME_ARQUIVO_METRICAS + ": " + e.getMessage());
+            }
         } else {
             System.out.println("Erro ao carregar produtos. Verifique o arquivo " + nomeArquivoDados);
         }
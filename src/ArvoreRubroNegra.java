@@ -0,0 +1,324 @@
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Árvore rubro-negra: árvore binária de busca em que cada nó é vermelho ou preto, a raiz é preta,
+ * um nó vermelho não tem filhos vermelhos e todos os caminhos de um nó até as sub-árvores vazias abaixo dele
+ * passam pela mesma quantidade de nós pretos. Sua altura é, no máximo, o dobro da altura mínima.
+ *
+ * Comparada à {@link AVL}, a árvore é menos rigidamente balanceada, mas cada inserção faz no máximo duas
+ * rotações e cada remoção, no máximo três; o restante do rebalanceamento são trocas de cor, e não há alturas
+ * a recalcular no caminho. É indicada para índices com muitas inserções e remoções.
+ * Como nas demais árvores, os nós mantêm a quantidade de nodos de suas sub-árvores.
+ */
+public class ArvoreRubroNegra<K, V> extends ABB<K, V> {
+
+	/**
+	 * Nó com a sua cor. As sub-árvores vazias são consideradas pretas.
+	 */
+	private static final class NoRubroNegro<K, V> extends No<K, V> {
+
+		private boolean vermelho;
+
+		private NoRubroNegro(K chave, V item) {
+			super(chave, item);
+		}
+	}
+
+	/**
+	 *  Construtor da classe.
+	 *  Esse construtor cria uma nova árvore rubro-negra vazia.
+	 */
+	public ArvoreRubroNegra() {
+		super();
+	}
+
+	public ArvoreRubroNegra(Comparator<K> comparador) {
+		super(comparador);
+	}
+
+	public ArvoreRubroNegra(ABB<?, V> original, Function<V, K> funcaoChave, Comparator<K> comparador) {
+		super(original, funcaoChave, comparador);
+	}
+
+	@Override
+	protected No<K, V> criarNo(K chave, V item) {
+		return new NoRubroNegro<>(chave, item);
+	}
+
+	private static boolean vermelho(No<?, ?> no) {
+		return (no != null) && ((NoRubroNegro<?, ?>) no).vermelho;
+	}
+
+	private static void pintar(No<?, ?> no, boolean vermelho) {
+		((NoRubroNegro<?, ?>) no).vermelho = vermelho;
+	}
+
+	/**
+	 * Cria a pilha usada para guardar o caminho da raiz até o ponto de inserção ou remoção.
+	 * Numa árvore rubro-negra com n nodos, esse caminho tem, no máximo, 2 log(n + 1) nós;
+	 * há uma posição a mais para a rotação que a remoção pode fazer acima do ponto de remoção.
+	 */
+	@SuppressWarnings("unchecked")
+	private No<K, V>[] novoCaminho() {
+
+		return new No[2 * (Integer.SIZE - Integer.numberOfLeadingZeros(tamanho + 1)) + 2];
+	}
+
+	/**
+	 * Substitui o conteúdo da árvore pelos itens fornecidos, construindo uma árvore perfeitamente balanceada.
+	 * Os nós dos níveis completos são pretos e os do último nível, se ele estiver incompleto, vermelhos.
+	 */
+	@Override
+	public void carregar(Entrada<K, V>[] entradas) {
+
+		super.carregar(entradas);
+		colorir(raiz, 0, Integer.SIZE - 1 - Integer.numberOfLeadingZeros(tamanho + 1));
+	}
+
+	private void colorir(No<K, V> raizArvore, int profundidade, int niveisCompletos) {
+
+		if (raizArvore == null)
+			return;
+
+		pintar(raizArvore, profundidade >= niveisCompletos);
+		colorir(raizArvore.getEsquerda(), profundidade + 1, niveisCompletos);
+		colorir(raizArvore.getDireita(), profundidade + 1, niveisCompletos);
+	}
+
+	/**
+	 * Método que adiciona, de forma iterativa, um item à árvore.
+	 * O novo nó é vermelho; se o seu pai também for, as cores são trocadas de baixo para cima enquanto
+	 * o tio for vermelho, e uma ou duas rotações encerram o rebalanceamento.
+	 * @param chave a chave associada ao item que será inserido na árvore.
+	 * @param item o item que será inserido na árvore.
+	 * @return o tamanho atualizado da árvore após a execução da operação de inserção.
+	 * @throws IllegalArgumentException se um item com a mesma chave já estiver presente na árvore.
+	 */
+	@Override
+	protected int inserirNaArvore(K chave, V item) {
+
+		No<K, V>[] caminho = novoCaminho();
+		int profundidade = 0;
+		No<K, V> atual = raiz;
+		No<K, V> novo, pai, avo, tio;
+		int comparacao = 0;
+
+		while (atual != null) {
+			comparacao = comparador.compare(chave, atual.getChave());
+
+			if (comparacao == 0)
+				throw new IllegalArgumentException("O item já foi inserido anteriormente na árvore.");
+
+			caminho[profundidade++] = atual;
+			atual = (comparacao < 0) ? atual.getEsquerda() : atual.getDireita();
+		}
+
+		novo = criarNo(chave, item);
+		pintar(novo, true);
+		if (profundidade == 0)
+			raiz = novo;
+		else if (comparacao < 0)
+			caminho[profundidade - 1].setEsquerda(novo);
+		else
+			caminho[profundidade - 1].setDireita(novo);
+
+		tamanho++;
+		for (int i = 0; i < profundidade; i++)
+			caminho[i].setTamanho(caminho[i].getTamanho() + 1);
+
+		/// Enquanto o nó atual e seu pai forem vermelhos. O pai vermelho nunca é a raiz, então o avô existe.
+		atual = novo;
+		for (int i = profundidade - 1; (i > 0) && vermelho(caminho[i]); i -= 2) {
+			pai = caminho[i];
+			avo = caminho[i - 1];
+			tio = (pai == avo.getEsquerda()) ? avo.getDireita() : avo.getEsquerda();
+
+			if (vermelho(tio)) {
+				/// Tio vermelho: o avô passa a ser vermelho e seus filhos, pretos; o problema sobe dois níveis.
+				pintar(pai, false);
+				pintar(tio, false);
+				pintar(avo, true);
+				atual = avo;
+				continue;
+			}
+
+			/// Tio preto: uma rotação dupla, se o nó estiver "por dentro", ou simples, e o rebalanceamento termina.
+			if (pai == avo.getEsquerda()) {
+				if (atual == pai.getDireita()) {
+					avo.setEsquerda(rotacionarEsquerda(pai));
+					pai = atual;
+				}
+				pintar(pai, false);
+				pintar(avo, true);
+				substituirFilho((i > 1) ? caminho[i - 2] : null, avo, rotacionarDireita(avo));
+			} else {
+				if (atual == pai.getEsquerda()) {
+					avo.setDireita(rotacionarDireita(pai));
+					pai = atual;
+				}
+				pintar(pai, false);
+				pintar(avo, true);
+				substituirFilho((i > 1) ? caminho[i - 2] : null, avo, rotacionarEsquerda(avo));
+			}
+			break;
+		}
+		pintar(raiz, false);
+
+		return tamanho;
+	}
+
+	/**
+	 * Método que localiza e retira, de forma iterativa, um item da árvore.
+	 * Se o nó do item tiver dois filhos, ele recebe o item do seu antecessor, cujo nó é o que sai da árvore.
+	 * Se o nó que sai for preto, falta um nó preto nos caminhos que passavam por ele, o que é corrigido de baixo
+	 * para cima com trocas de cor e, no máximo, três rotações.
+	 * @param chave a chave do item que deverá ser localizado e removido da árvore.
+	 * @return o valor associado ao item removido.
+	 */
+	@Override
+	protected V removerDaArvore(K chave) {
+
+		No<K, V>[] caminho = novoCaminho();
+		int profundidade = 0;
+		No<K, V> atual = raiz;
+		No<K, V> antecessor, filho;
+		V removido;
+		int comparacao;
+
+		while ((atual != null) && ((comparacao = comparador.compare(chave, atual.getChave())) != 0)) {
+			caminho[profundidade++] = atual;
+			atual = (comparacao < 0) ? atual.getEsquerda() : atual.getDireita();
+		}
+
+		if (atual == null)
+			throw new NoSuchElementException("O item a ser removido não foi localizado na árvore!");
+
+		removido = atual.getItem();
+
+		if ((atual.getEsquerda() != null) && (atual.getDireita() != null)) {
+			caminho[profundidade++] = atual;
+			antecessor = atual.getEsquerda();
+			while (antecessor.getDireita() != null) {
+				caminho[profundidade++] = antecessor;
+				antecessor = antecessor.getDireita();
+			}
+			atual.setChave(antecessor.getChave());
+			atual.setItem(antecessor.getItem());
+			atual = antecessor;
+		}
+
+		filho = (atual.getEsquerda() != null) ? atual.getEsquerda() : atual.getDireita();
+		substituirFilho((profundidade == 0) ? null : caminho[profundidade - 1], atual, filho);
+
+		tamanho--;
+		for (int i = 0; i < profundidade; i++)
+			caminho[i].setTamanho(caminho[i].getTamanho() - 1);
+
+		if (vermelho(atual))
+			return removido;
+
+		if (vermelho(filho))
+			pintar(filho, false);
+		else
+			corrigirRemocao(caminho, profundidade, filho);
+
+		return removido;
+	}
+
+	/**
+	 * Corrige a falta de um nó preto nos caminhos que passam pelo nó informado, que é preto (ou vazio).
+	 * @param caminho os nós da raiz (posição 0) até o pai do nó.
+	 * @param profundidade a quantidade de nós do caminho.
+	 * @param no o nó, possivelmente vazio, em cujos caminhos falta um nó preto.
+	 */
+	private void corrigirRemocao(No<K, V>[] caminho, int profundidade, No<K, V> no) {
+
+		No<K, V> pai, irmao;
+		int i = profundidade - 1;
+		boolean aEsquerda;
+
+		while ((i >= 0) && !vermelho(no)) {
+			pai = caminho[i];
+			/// Se o nó for vazio, o lado é o do filho vazio do pai (o outro filho, o irmão, não pode ser vazio).
+			aEsquerda = (no != null) ? (no == pai.getEsquerda()) : (pai.getEsquerda() == null);
+			irmao = aEsquerda ? pai.getDireita() : pai.getEsquerda();
+
+			if (vermelho(irmao)) {
+				/// Irmão vermelho: uma rotação no pai torna o irmão preto, sem mudar a altura preta;
+				/// o irmão sobe para o caminho, acima do pai.
+				pintar(irmao, false);
+				pintar(pai, true);
+				substituirFilho((i > 0) ? caminho[i - 1] : null, pai,
+						aEsquerda ? rotacionarEsquerda(pai) : rotacionarDireita(pai));
+				caminho[i] = irmao;
+				caminho[++i] = pai;
+				irmao = aEsquerda ? pai.getDireita() : pai.getEsquerda();
+			}
+
+			if (!vermelho(irmao.getEsquerda()) && !vermelho(irmao.getDireita())) {
+				/// Irmão preto com filhos pretos: o irmão fica vermelho e a falta sobe para o pai.
+				pintar(irmao, true);
+				no = pai;
+				i--;
+				continue;
+			}
+
+			/// Irmão preto com um filho vermelho: uma ou duas rotações corrigem a falta.
+			if (aEsquerda) {
+				if (!vermelho(irmao.getDireita())) {
+					pintar(irmao.getEsquerda(), false);
+					pintar(irmao, true);
+					pai.setDireita(rotacionarDireita(irmao));
+					irmao = pai.getDireita();
+				}
+				pintar(irmao, vermelho(pai));
+				pintar(pai, false);
+				pintar(irmao.getDireita(), false);
+				substituirFilho((i > 0) ? caminho[i - 1] : null, pai, rotacionarEsquerda(pai));
+			} else {
+				if (!vermelho(irmao.getEsquerda())) {
+					pintar(irmao.getDireita(), false);
+					pintar(irmao, true);
+					pai.setEsquerda(rotacionarEsquerda(irmao));
+					irmao = pai.getEsquerda();
+				}
+				pintar(irmao, vermelho(pai));
+				pintar(pai, false);
+				pintar(irmao.getEsquerda(), false);
+				substituirFilho((i > 0) ? caminho[i - 1] : null, pai, rotacionarDireita(pai));
+			}
+			return;
+		}
+
+		if (no != null)
+			pintar(no, false);
+	}
+
+	private No<K, V> rotacionarDireita(No<K, V> p) {
+
+		No<K, V> u = p.getEsquerda();
+
+		p.setEsquerda(u.getDireita());
+		u.setDireita(p);
+
+		p.setTamanho();
+		u.setTamanho();
+
+		return u;
+	}
+
+	private No<K, V> rotacionarEsquerda(No<K, V> p) {
+
+		No<K, V> z = p.getDireita();
+
+		p.setDireita(z.getEsquerda());
+		z.setEsquerda(p);
+
+		p.setTamanho();
+		z.setTamanho();
+
+		return z;
+	}
+}
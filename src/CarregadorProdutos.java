@@ -0,0 +1,380 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Carregador de catálogos de produtos em arquivo texto, no formato lido por {@link Produto#criarDoTexto(String)}:
+ * uma primeira linha com a quantidade de produtos e, em seguida, uma linha por produto, no formato
+ * "tipo;descrição;preçoDeCusto;margemDeLucro;[dataDeValidade]".
+ *
+ * O arquivo é mapeado em memória ({@link FileChannel#map}) e dividido em blocos que terminam em fins de linha.
+ * Cada bloco é interpretado por uma thread diretamente sobre os bytes mapeados: os campos não são copiados
+ * para Strings intermediárias (exceto a descrição), e números decimais e datas dd/MM/yyyy são convertidos à mão.
+ * Os produtos são criados depois, em sequência e na ordem do arquivo, para que seus identificadores sejam
+ * os mesmos de uma leitura linha a linha.
+ */
+public class CarregadorProdutos {
+
+    /** Tamanho mínimo, em bytes, de um bloco interpretado por uma única tarefa. */
+    private static final int TAMANHO_MINIMO_BLOCO = 1 << 20;
+
+    /** Tamanho máximo, em bytes, de um bloco, limitado pelo tamanho de um mapeamento. */
+    private static final int TAMANHO_MAXIMO_BLOCO = 1 << 30;
+
+    /** Quantidade de blocos por thread, para equilibrar a carga entre elas. */
+    private static final int BLOCOS_POR_THREAD = 4;
+
+    /** Tamanho do buffer usado para localizar os fins de linha entre os blocos. */
+    private static final int TAMANHO_LEITURA = 1 << 12;
+
+    /** Maior quantidade de dígitos de um decimal convertido sem perda por divisão de inteiros exatos. */
+    private static final int MAXIMO_DIGITOS = 15;
+
+    private static final double[] POTENCIAS_DE_DEZ = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private final int quantasThreads;
+
+    public CarregadorProdutos() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Construtor da classe.
+     * @param quantasThreads quantidade de threads que interpretam os blocos do arquivo.
+     */
+    public CarregadorProdutos(int quantasThreads) {
+        if (quantasThreads < 1)
+            throw new IllegalArgumentException("O carregamento deve usar ao menos uma thread.");
+
+        this.quantasThreads = quantasThreads;
+    }
+
+    /**
+     * Dados interpretados das linhas de um bloco, em vetores paralelos, na ordem do arquivo.
+     */
+    private static class Registros {
+        private byte[] tipos;
+        private String[] descricoes;
+        private double[] precosCusto;
+        private double[] margensLucro;
+        private LocalDate[] validades;
+        private int quantidade;
+
+        private Registros(int capacidade) {
+            capacidade = Math.max(capacidade, 16);
+            tipos = new byte[capacidade];
+            descricoes = new String[capacidade];
+            precosCusto = new double[capacidade];
+            margensLucro = new double[capacidade];
+            validades = new LocalDate[capacidade];
+            quantidade = 0;
+        }
+
+        private void adicionar(byte tipo, String descricao, double precoCusto, double margemLucro, LocalDate validade) {
+            if (quantidade == tipos.length) {
+                int capacidade = quantidade * 2;
+                tipos = Arrays.copyOf(tipos, capacidade);
+                descricoes = Arrays.copyOf(descricoes, capacidade);
+                precosCusto = Arrays.copyOf(precosCusto, capacidade);
+                margensLucro = Arrays.copyOf(margensLucro, capacidade);
+                validades = Arrays.copyOf(validades, capacidade);
+            }
+            tipos[quantidade] = tipo;
+            descricoes[quantidade] = descricao;
+            precosCusto[quantidade] = precoCusto;
+            margensLucro[quantidade] = margemLucro;
+            validades[quantidade] = validade;
+            quantidade++;
+        }
+    }
+
+    /**
+     * Carrega os produtos do arquivo.
+     * @param nomeArquivo nome do arquivo de produtos.
+     * @return os produtos, na ordem do arquivo, com a quantidade declarada na primeira linha.
+     * @throws EOFException se o arquivo tiver menos produtos do que a quantidade declarada.
+     * @throws IOException se ocorrer um erro de leitura do arquivo.
+     * @throws IllegalArgumentException se uma linha tiver dados inválidos para um produto.
+     * @throws java.time.DateTimeException se uma linha tiver uma data de validade inválida.
+     */
+    public Produto[] carregar(String nomeArquivo) throws IOException {
+
+        Registros[] blocos;
+        long[] limites;
+        long inicioDados;
+        int quantidade;
+
+        try (FileChannel canal = FileChannel.open(Path.of(nomeArquivo), StandardOpenOption.READ)) {
+            inicioDados = proximaLinha(canal, 0);
+            quantidade = Integer.parseInt(lerTexto(canal, 0, inicioDados).trim());
+            limites = dividir(canal, inicioDados);
+            blocos = new Registros[limites.length - 1];
+
+            if (blocos.length == 1) {
+                blocos[0] = interpretar(canal.map(FileChannel.MapMode.READ_ONLY, limites[0], limites[1] - limites[0]));
+            } else {
+                interpretarEmParalelo(canal, limites, blocos);
+            }
+        }
+        return criarProdutos(blocos, quantidade);
+    }
+
+    /**
+     * Divide a parte do arquivo a partir de {@code inicioDados} em blocos de tamanhos parecidos,
+     * cada um começando no início de uma linha.
+     * @return os limites dos blocos: o bloco i vai de limites[i], inclusive, a limites[i + 1], exclusive.
+     */
+    private long[] dividir(FileChannel canal, long inicioDados) throws IOException {
+
+        long tamanho = canal.size();
+        long tamanhoDados = tamanho - inicioDados;
+        long quantosBlocos = Math.min((long) quantasThreads * BLOCOS_POR_THREAD,
+                (tamanhoDados + TAMANHO_MINIMO_BLOCO - 1) / TAMANHO_MINIMO_BLOCO);
+        long passo;
+        long[] limites;
+
+        quantosBlocos = Math.max(quantosBlocos, (tamanhoDados + TAMANHO_MAXIMO_BLOCO - 1) / TAMANHO_MAXIMO_BLOCO);
+        quantosBlocos = Math.max(quantosBlocos, 1);
+        passo = tamanhoDados / quantosBlocos;
+
+        limites = new long[(int) quantosBlocos + 1];
+        limites[0] = inicioDados;
+        for (int i = 1; i < quantosBlocos; i++) {
+            /// O bloco começa logo após o primeiro fim de linha a partir do byte anterior ao seu início nominal.
+            limites[i] = Math.max(limites[i - 1], proximaLinha(canal, inicioDados + i * passo - 1));
+        }
+        limites[limites.length - 1] = tamanho;
+        return limites;
+    }
+
+    private void interpretarEmParalelo(FileChannel canal, long[] limites, Registros[] blocos) throws IOException {
+
+        ForkJoinPool executor = new ForkJoinPool(quantasThreads);
+        ForkJoinTask<?>[] tarefas = new ForkJoinTask<?>[blocos.length];
+
+        try {
+            for (int b = 0; b < blocos.length; b++) {
+                final int bloco = b;
+                final MappedByteBuffer dados = canal.map(FileChannel.MapMode.READ_ONLY, limites[b], limites[b + 1] - limites[b]);
+                tarefas[b] = executor.submit(() -> {
+                    blocos[bloco] = interpretar(dados);
+                });
+            }
+            for (ForkJoinTask<?> tarefa : tarefas)
+                tarefa.join();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Cria os produtos a partir dos registros dos blocos, em sequência e na ordem do arquivo.
+     */
+    private static Produto[] criarProdutos(Registros[] blocos, int quantidade) throws EOFException {
+
+        Produto[] produtos = new Produto[quantidade];
+        int criados = 0;
+
+        for (Registros bloco : blocos) {
+            for (int i = 0; (i < bloco.quantidade) && (criados < quantidade); i++) {
+                if (bloco.tipos[i] == 2) {
+                    produtos[criados++] = new ProdutoPerecivel(bloco.descricoes[i], bloco.precosCusto[i],
+                            bloco.margensLucro[i], bloco.validades[i]);
+                } else {
+                    produtos[criados++] = new ProdutoNaoPerecivel(bloco.descricoes[i], bloco.precosCusto[i],
+                            bloco.margensLucro[i]);
+                }
+            }
+        }
+
+        if (criados < quantidade)
+            throw new EOFException("O arquivo declara " + quantidade + " produtos, mas contém apenas " + criados + ".");
+
+        return produtos;
+    }
+
+    /**
+     * Interpreta todas as linhas de um bloco. Linhas em branco são ignoradas.
+     */
+    private static Registros interpretar(ByteBuffer dados) {
+
+        int tamanho = dados.limit();
+        Registros registros = new Registros(tamanho / 32);
+        int inicio = 0, fimLinha, fimConteudo;
+
+        while (inicio < tamanho) {
+            fimLinha = inicio;
+            while ((fimLinha < tamanho) && (dados.get(fimLinha) != '\n'))
+                fimLinha++;
+
+            fimConteudo = fimLinha;
+            if ((fimConteudo > inicio) && (dados.get(fimConteudo - 1) == '\r'))
+                fimConteudo--;
+
+            if (fimConteudo > inicio)
+                interpretarLinha(dados, inicio, fimConteudo, registros);
+
+            inicio = fimLinha + 1;
+        }
+        return registros;
+    }
+
+    /**
+     * Interpreta uma linha "tipo;descrição;preçoDeCusto;margemDeLucro;[dataDeValidade]", sem o fim de linha,
+     * e acrescenta seus dados aos registros.
+     */
+    private static void interpretarLinha(ByteBuffer dados, int inicio, int fim, Registros registros) {
+
+        int[] separadores = new int[4];
+        int quantosSeparadores = 0;
+        byte tipo;
+        String descricao;
+        double precoCusto, margemLucro;
+        LocalDate validade = null;
+
+        for (int i = inicio; (i < fim) && (quantosSeparadores < separadores.length); i++) {
+            if (dados.get(i) == ';')
+                separadores[quantosSeparadores++] = i;
+        }
+        if (quantosSeparadores < 3)
+            throw new IllegalArgumentException("Linha de produto incompleta: " + lerTexto(dados, inicio, fim));
+
+        tipo = (byte) interpretarInteiro(dados, inicio, separadores[0]);
+        descricao = lerTexto(dados, separadores[0] + 1, separadores[1]);
+        precoCusto = interpretarDecimal(dados, separadores[1] + 1, separadores[2]);
+        if (quantosSeparadores == 3) {
+            margemLucro = interpretarDecimal(dados, separadores[2] + 1, fim);
+        } else {
+            margemLucro = interpretarDecimal(dados, separadores[2] + 1, separadores[3]);
+            if (tipo == 2)
+                validade = interpretarData(dados, separadores[3] + 1, fim);
+        }
+        if ((tipo == 2) && (validade == null))
+            throw new IllegalArgumentException("Produto perecível sem data de validade: " + lerTexto(dados, inicio, fim));
+
+        registros.adicionar(tipo, descricao, precoCusto, margemLucro, validade);
+    }
+
+    private static int interpretarInteiro(ByteBuffer dados, int inicio, int fim) {
+
+        int valor = 0;
+        byte c;
+
+        if (inicio == fim)
+            throw new NumberFormatException("Número vazio.");
+
+        for (int i = inicio; i < fim; i++) {
+            c = dados.get(i);
+            if ((c < '0') || (c > '9'))
+                return Integer.parseInt(lerTexto(dados, inicio, fim).trim());
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+
+    /**
+     * Converte um decimal com ponto ou vírgula como separador, como "3.88" ou "0,50".
+     * Com até 15 dígitos, mantissa e potência de 10 são valores double exatos, e a divisão entre eles
+     * produz o mesmo resultado, corretamente arredondado, de {@link Double#parseDouble(String)}.
+     * Outros formatos são delegados a {@link Double#parseDouble(String)}.
+     */
+    private static double interpretarDecimal(ByteBuffer dados, int inicio, int fim) {
+
+        long mantissa = 0;
+        int digitos = 0;
+        int casas = -1;
+        byte c;
+
+        for (int i = inicio; i < fim; i++) {
+            c = dados.get(i);
+            if ((c >= '0') && (c <= '9')) {
+                mantissa = mantissa * 10 + (c - '0');
+                digitos++;
+                if (casas >= 0)
+                    casas++;
+            } else if (((c == '.') || (c == ',')) && (casas < 0)) {
+                casas = 0;
+            } else {
+                digitos = MAXIMO_DIGITOS + 1;
+                break;
+            }
+        }
+
+        if ((digitos == 0) || (digitos > MAXIMO_DIGITOS))
+            return Double.parseDouble(lerTexto(dados, inicio, fim).replace(",", "."));
+
+        return (casas > 0) ? mantissa / POTENCIAS_DE_DEZ[casas] : mantissa;
+    }
+
+    /**
+     * Converte uma data no formato dd/MM/yyyy. Como no formatador de datas dos produtos, um dia além do fim
+     * do mês (31/02, por exemplo) é trocado pelo último dia do mês. Outros formatos, e dias ou meses fora
+     * dos limites, são delegados ao formatador.
+     */
+    private static LocalDate interpretarData(ByteBuffer dados, int inicio, int fim) {
+
+        int ano, mes, dia;
+
+        if ((fim - inicio == 10) && (dados.get(inicio + 2) == '/') && (dados.get(inicio + 5) == '/')
+                && digitos(dados, inicio, inicio + 2) && digitos(dados, inicio + 3, inicio + 5)
+                && digitos(dados, inicio + 6, fim)) {
+            ano = interpretarInteiro(dados, inicio + 6, fim);
+            mes = interpretarInteiro(dados, inicio + 3, inicio + 5);
+            dia = interpretarInteiro(dados, inicio, inicio + 2);
+            if ((mes >= 1) && (mes <= 12) && (dia >= 1) && (dia <= 31))
+                return LocalDate.of(ano, mes, Math.min(dia, YearMonth.of(ano, mes).lengthOfMonth()));
+        }
+        return LocalDate.parse(lerTexto(dados, inicio, fim), Produto.FORMATO_DATA);
+    }
+
+    private static boolean digitos(ByteBuffer dados, int inicio, int fim) {
+        for (int i = inicio; i < fim; i++) {
+            if ((dados.get(i) < '0') || (dados.get(i) > '9'))
+                return false;
+        }
+        return true;
+    }
+
+    private static String lerTexto(ByteBuffer dados, int inicio, int fim) {
+
+        byte[] bytes = new byte[fim - inicio];
+
+        dados.get(inicio, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String lerTexto(FileChannel canal, long inicio, long fim) throws IOException {
+        return lerTexto(canal.map(FileChannel.MapMode.READ_ONLY, inicio, fim - inicio), 0, (int) (fim - inicio));
+    }
+
+    /**
+     * Localiza o início da linha seguinte à que contém a posição fornecida.
+     * @return a posição logo após o primeiro fim de linha a partir da posição fornecida, ou o tamanho do arquivo.
+     */
+    private static long proximaLinha(FileChannel canal, long posicao) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_LEITURA);
+        int lidos;
+
+        while ((lidos = canal.read(buffer.clear(), posicao)) > 0) {
+            for (int i = 0; i < lidos; i++) {
+                if (buffer.get(i) == '\n')
+                    return posicao + i + 1;
+            }
+            posicao += lidos;
+        }
+        return canal.size();
+    }
+}
@@ -0,0 +1,77 @@
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Dia comercial corrente, usado nos preços que dependem da data e nas datas dos pedidos.
+ *
+ * O dia é obtido de um relógio substituível (o relógio do sistema, por padrão) e guardado até a meia-noite
+ * seguinte: durante o dia, a consulta custa apenas uma leitura do instante atual, sem conversão de fuso
+ * horário nem criação de datas. Trocar o relógio permite simular outros dias, por exemplo em testes.
+ */
+public final class DiaComercial {
+
+    /**
+     * Dia corrente, o instante, em milissegundos, em que ele termina, e o relógio de onde foi obtido.
+     * Imutável, para leitura sem bloqueio.
+     */
+    private static final class Dia {
+        private final Clock relogio;
+        private final LocalDate data;
+        private final long termino;
+
+        private Dia(Clock relogio, LocalDate data, long termino) {
+            this.relogio = relogio;
+            this.data = data;
+            this.termino = termino;
+        }
+    }
+
+    private static final AtomicReference<Dia> atual = new AtomicReference<>(calcular(Clock.systemDefaultZone()));
+
+    private DiaComercial() {
+    }
+
+    private static Dia calcular(Clock relogio) {
+        ZoneId fuso = relogio.getZone();
+        LocalDate data = LocalDate.ofInstant(Instant.ofEpochMilli(relogio.millis()), fuso);
+        return new Dia(relogio, data, data.plusDays(1).atStartOfDay(fuso).toInstant().toEpochMilli());
+    }
+
+    /**
+     * Retorna a data corrente do relógio em uso. O valor é recalculado apenas na virada do dia.
+     * @return a data corrente.
+     */
+    public static LocalDate hoje() {
+        Dia dia = atual.get();
+        Dia novo;
+
+        if (dia.relogio.millis() >= dia.termino) {
+            novo = calcular(dia.relogio);
+            /// Se o relógio tiver sido trocado enquanto isso, o dia obtido do novo relógio é mantido.
+            atual.compareAndSet(dia, novo);
+            dia = novo;
+        }
+        return dia.data;
+    }
+
+    /**
+     * Substitui o relógio usado para obter o dia corrente.
+     * @param novoRelogio o relógio a ser usado, como {@link Clock#fixed} para simular um dia específico.
+     */
+    public static void usarRelogio(Clock novoRelogio) {
+        if (novoRelogio == null)
+            throw new IllegalArgumentException("O relógio não pode ser nulo.");
+
+        atual.set(calcular(novoRelogio));
+    }
+
+    /**
+     * Volta a usar o relógio do sistema, no fuso horário padrão.
+     */
+    public static void usarRelogioDoSistema() {
+        usarRelogio(Clock.systemDefaultZone());
+    }
+}
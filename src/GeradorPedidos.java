@@ -0,0 +1,166 @@
+import java.time.LocalDate;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Gerador de pedidos aleatórios em paralelo.
+ *
+ * Os pedidos são divididos em blocos de tamanho fixo, e cada bloco recebe seu próprio gerador de números
+ * aleatórios, obtido por divisão ({@link SplittableRandom#split()}) de um gerador raiz criado com a semente.
+ * Como os geradores dos blocos e os identificadores dos pedidos são definidos antes da execução paralela,
+ * o resultado depende apenas da semente e da quantidade de pedidos, e não da quantidade de threads.
+ *
+ * Cada bloco monta seu próprio índice de pedidos por produto, dividido em partições. Depois, cada partição
+ * é consolidada na tabela de pedidos por produto por uma thread diferente, percorrendo os blocos em ordem:
+ * as threads não disputam os mesmos produtos e a ordem dos pedidos de cada produto é a ordem dos identificadores.
+ */
+public class GeradorPedidos {
+
+    private static final int PEDIDOS_POR_BLOCO = 1024;
+    private static final int MAXIMO_PRODUTOS_POR_PEDIDO = 8;
+
+    private final TabelaHashInt<Produto> produtosPorId;
+    private final int primeiroIdProduto;
+    private final int quantosProdutos;
+    private final LocalDate dataPedidos;
+
+    /**
+     * Construtor da classe.
+     * @param produtosPorId produtos cadastrados, indexados pelo identificador, sem encaixotamento das chaves.
+     * Eles são pesquisados por várias threads ao mesmo tempo, sem medição, e a tabela não deve ser alterada durante a geração.
+     * @param primeiroIdProduto menor identificador de produto a ser sorteado.
+     * @param quantosProdutos quantidade de identificadores consecutivos a serem sorteados.
+     * @param dataPedidos data atribuída a todos os pedidos gerados.
+     */
+    public GeradorPedidos(TabelaHashInt<Produto> produtosPorId, int primeiroIdProduto,
+            int quantosProdutos, LocalDate dataPedidos) {
+        this.produtosPorId = produtosPorId;
+        this.primeiroIdProduto = primeiroIdProduto;
+        this.quantosProdutos = quantosProdutos;
+        this.dataPedidos = dataPedidos;
+    }
+
+    /**
+     * Resultado da geração de um bloco: seus pedidos, em ordem de identificador, e o índice de pedidos
+     * por produto do bloco, dividido em partições.
+     */
+    private static class Bloco {
+        private final Lista<Pedido> pedidos = new Lista<>();
+        private final TabelaHashRobinHood<Produto, ListaIndexada<Pedido>>[] particoes;
+
+        @SuppressWarnings("unchecked")
+        private Bloco(int quantasParticoes) {
+            particoes = new TabelaHashRobinHood[quantasParticoes];
+            for (int i = 0; i < quantasParticoes; i++)
+                particoes[i] = TabelaHashRobinHood.auxiliar(0);
+        }
+    }
+
+    /**
+     * Gera os pedidos e os registra na tabela de pedidos por produto.
+     * @param quantidade quantidade de pedidos a serem gerados.
+     * @param semente semente do gerador de números aleatórios.
+     * @param quantasThreads quantidade de threads usadas na geração.
+     * @param pedidosPorProduto tabela em que os pedidos de cada produto são acrescentados.
+     * @return a lista com todos os pedidos gerados, em ordem de identificador.
+     */
+    public Lista<Pedido> gerar(int quantidade, long semente, int quantasThreads,
+            TabelaHashConcorrente<Produto, ListaIndexada<Pedido>> pedidosPorProduto) {
+
+        int quantosBlocos = (quantidade + PEDIDOS_POR_BLOCO - 1) / PEDIDOS_POR_BLOCO;
+        int quantasParticoes = Math.max(1, quantasThreads);
+        int primeiroIdPedido = Pedido.reservarIdentificadores(quantidade);
+        SplittableRandom raiz = new SplittableRandom(semente);
+        SplittableRandom[] sorteios = new SplittableRandom[quantosBlocos];
+        Bloco[] blocos = new Bloco[quantosBlocos];
+        ForkJoinTask<?>[] tarefas;
+        ForkJoinPool executor;
+        Lista<Pedido> pedidos = new Lista<>();
+
+        if (quantasThreads < 1)
+            throw new IllegalArgumentException("A geração deve usar ao menos uma thread.");
+
+        /// Os geradores de cada bloco são criados em sequência, antes da execução paralela.
+        for (int b = 0; b < quantosBlocos; b++)
+            sorteios[b] = raiz.split();
+
+        executor = new ForkJoinPool(quantasThreads);
+        try {
+            tarefas = new ForkJoinTask<?>[quantosBlocos];
+            for (int b = 0; b < quantosBlocos; b++) {
+                final int bloco = b;
+                final int inicio = b * PEDIDOS_POR_BLOCO;
+                final int fim = Math.min(inicio + PEDIDOS_POR_BLOCO, quantidade);
+                tarefas[b] = executor.submit(() -> {
+                    blocos[bloco] = gerarBloco(primeiroIdPedido + inicio, fim - inicio, sorteios[bloco], quantasParticoes);
+                });
+            }
+            for (ForkJoinTask<?> tarefa : tarefas)
+                tarefa.join();
+
+            tarefas = new ForkJoinTask<?>[quantasParticoes];
+            for (int p = 0; p < quantasParticoes; p++) {
+                final int particao = p;
+                tarefas[p] = executor.submit(() -> consolidar(blocos, particao, pedidosPorProduto));
+            }
+            for (ForkJoinTask<?> tarefa : tarefas)
+                tarefa.join();
+        } finally {
+            executor.shutdown();
+        }
+
+        for (Bloco bloco : blocos)
+            pedidos.concatenar(bloco.pedidos);
+
+        return pedidos;
+    }
+
+    private Bloco gerarBloco(int primeiroIdPedido, int quantidade, SplittableRandom sorteio, int quantasParticoes) {
+
+        Bloco bloco = new Bloco(quantasParticoes);
+        Pedido pedido;
+        Produto produto;
+        int formaDePagamento, quantProdutos, id;
+
+        for (int i = 0; i < quantidade; i++) {
+            formaDePagamento = sorteio.nextInt(2) + 1;
+            pedido = new Pedido(primeiroIdPedido + i, dataPedidos, formaDePagamento);
+            quantProdutos = sorteio.nextInt(MAXIMO_PRODUTOS_POR_PEDIDO) + 1;
+            for (int j = 0; j < quantProdutos; j++) {
+                id = sorteio.nextInt(quantosProdutos) + primeiroIdProduto;
+                try {
+                    produto = produtosPorId.pesquisarSemMedicao(id);
+                    pedido.incluirProduto(produto);
+                    bloco.particoes[Math.floorMod(produto.hashCode(), quantasParticoes)]
+                            .pesquisarOuInserir(produto, p -> new ListaIndexada<>(Pedido::getIdPedido))
+                            .inserirFinal(pedido);
+                } catch (NoSuchElementException e) {
+                    /// Identificador sem produto cadastrado: o sorteio é descartado.
+                }
+            }
+            bloco.pedidos.inserirFinal(pedido);
+        }
+        return bloco;
+    }
+
+    /**
+     * Acrescenta à tabela de pedidos por produto os pedidos de uma partição de todos os blocos,
+     * percorrendo os blocos em ordem. As células das listas dos blocos são movidas, sem cópia,
+     * e indexadas na lista do produto.
+     */
+    private static void consolidar(Bloco[] blocos, int particao,
+            TabelaHashConcorrente<Produto, ListaIndexada<Pedido>> pedidosPorProduto) {
+
+        for (Bloco bloco : blocos) {
+            bloco.particoes[particao].paraCada((produto, pedidosDoBloco) -> {
+                ListaIndexada<Pedido> pedidosDoProduto =
+                        pedidosPorProduto.pesquisarOuInserir(produto, p -> new ListaIndexada<>(Pedido::getIdPedido));
+                synchronized (pedidosDoProduto) {
+                    pedidosDoProduto.concatenar(pedidosDoBloco);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,140 @@
+import java.util.Arrays;
+
+/**
+ * Histograma de valores inteiros não negativos (quantidades de sondagens, tempos em nanossegundos...).
+ * Valores menores do que {@link #SUBFAIXAS} são contados exatamente; os demais são agrupados em faixas
+ * de potências de 2, cada uma dividida em {@link #SUBFAIXAS} subfaixas de mesma largura, o que limita o
+ * erro relativo dos percentis a cerca de 6% usando menos de mil contadores.
+ */
+public class Histograma {
+
+	/** Quantidade de subfaixas por potência de 2 (deve ser potência de 2). */
+	private static final int SUBFAIXAS = 16;
+	private static final int BITS_SUBFAIXA = Integer.numberOfTrailingZeros(SUBFAIXAS);
+	/** Quantidade de faixas, e de contadores, de um histograma. */
+	static final int FAIXAS = (64 - BITS_SUBFAIXA) * SUBFAIXAS;
+
+	private final long[] contagens;
+	private long quantidade;
+	private long soma;
+	private long maximo;
+
+	public Histograma() {
+		contagens = new long[FAIXAS];
+		quantidade = 0;
+		soma = 0;
+		maximo = 0;
+	}
+
+	/**
+	 * Retorna a faixa em que o valor, não negativo, é contado.
+	 */
+	static int faixa(long valor) {
+		int expoente;
+
+		if (valor < SUBFAIXAS)
+			return (int) valor;
+
+		expoente = 63 - Long.numberOfLeadingZeros(valor);
+		return ((expoente - BITS_SUBFAIXA + 1) * SUBFAIXAS)
+				+ (int) ((valor >>> (expoente - BITS_SUBFAIXA)) & (SUBFAIXAS - 1));
+	}
+
+	/**
+	 * Retorna o maior valor contado na faixa informada.
+	 */
+	private static long limiteSuperior(int faixa) {
+		int expoente;
+		long largura;
+
+		if (faixa < SUBFAIXAS)
+			return faixa;
+
+		expoente = (faixa / SUBFAIXAS) + BITS_SUBFAIXA - 1;
+		largura = 1L << (expoente - BITS_SUBFAIXA);
+		return (1L << expoente) + ((faixa % SUBFAIXAS) + 1) * largura - 1;
+	}
+
+	/**
+	 * Registra um valor no histograma. Valores negativos são contados como 0.
+	 * @param valor o valor a ser registrado.
+	 */
+	public void registrar(long valor) {
+
+		if (valor < 0)
+			valor = 0;
+
+		contagens[faixa(valor)]++;
+		quantidade++;
+		soma += valor;
+		if (valor > maximo)
+			maximo = valor;
+	}
+
+	/**
+	 * Acumula neste histograma valores contados em outro lugar com as mesmas faixas, como os de um
+	 * {@link HistogramaConcorrente}.
+	 * @param contagensFaixas as contagens de cada faixa, com {@link #FAIXAS} posições.
+	 * @param quantidadeValores a quantidade de valores contados.
+	 * @param somaValores a soma dos valores contados.
+	 * @param maiorValor o maior valor contado.
+	 */
+	void acumular(long[] contagensFaixas, long quantidadeValores, long somaValores, long maiorValor) {
+
+		for (int i = 0; i < FAIXAS; i++)
+			contagens[i] += contagensFaixas[i];
+		quantidade += quantidadeValores;
+		soma += somaValores;
+		if (maiorValor > maximo)
+			maximo = maiorValor;
+	}
+
+	public long getQuantidade() {
+		return quantidade;
+	}
+
+	public long getMaximo() {
+		return maximo;
+	}
+
+	public double getMedia() {
+		return (quantidade == 0) ? 0 : (double) soma / quantidade;
+	}
+
+	/**
+	 * Retorna o percentil informado dos valores registrados.
+	 * @param percentual percentual desejado, entre 0 e 100 (por exemplo, 99 para o p99).
+	 * @return o limite superior da faixa que contém o percentil, ou 0 se o histograma estiver vazio.
+	 */
+	public long percentil(double percentual) {
+
+		long posicao, acumulado = 0;
+
+		if ((percentual < 0) || (percentual > 100))
+			throw new IllegalArgumentException("O percentual deve estar entre 0 e 100.");
+
+		if (quantidade == 0)
+			return 0;
+
+		posicao = Math.max(1, (long) Math.ceil(quantidade * percentual / 100.0));
+		for (int i = 0; i < FAIXAS; i++) {
+			acumulado += contagens[i];
+			if (acumulado >= posicao)
+				return Math.min(limiteSuperior(i), maximo);
+		}
+		return maximo;
+	}
+
+	public void limpar() {
+		Arrays.fill(contagens, 0);
+		quantidade = 0;
+		soma = 0;
+		maximo = 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("n=%d média=%.2f p50=%d p90=%d p99=%d máx=%d",
+				quantidade, getMedia(), percentil(50), percentil(90), percentil(99), maximo);
+	}
+}
@@ -0,0 +1,165 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma com as mesmas faixas de {@link Histograma}, no qual várias threads registram valores ao mesmo tempo.
+ *
+ * Cada thread escreve apenas nos seus próprios contadores, sem bloqueio nem disputa de cache com as demais;
+ * como há um único escritor por contador, basta uma escrita ordenada ({@code lazySet}), sem instrução atômica.
+ * A leitura soma os contadores de todas as threads em um {@link Histograma} comum, com os valores registrados
+ * até pouco antes da leitura. Os contadores de threads já encerradas são somados a um acumulador comum e
+ * descartados, na leitura ou quando outra thread começa a registrar, de modo que o histograma guarda contadores
+ * apenas para as threads vivas.
+ *
+ * Junto com o histograma, cada thread pode manter contadores avulsos ({@link #contar(int, long)}), somados da
+ * mesma forma, para números que acompanham os valores registrados mas não entram no histograma.
+ */
+public class HistogramaConcorrente {
+
+	/** Posições, depois dos contadores das faixas, da quantidade, da soma e do maior valor registrado. */
+	private static final int QUANTIDADE = Histograma.FAIXAS;
+	private static final int SOMA = QUANTIDADE + 1;
+	private static final int MAXIMO = SOMA + 1;
+	/** Posição do primeiro contador avulso. */
+	private static final int CONTADORES = MAXIMO + 1;
+
+	/** Contadores de uma thread, guardados junto com ela para que sejam recolhidos quando ela se encerrar. */
+	private static final class Gravador {
+		private final Thread thread = Thread.currentThread();
+		private final AtomicLongArray contadores;
+
+		private Gravador(int posicoes) {
+			contadores = new AtomicLongArray(posicoes);
+		}
+	}
+
+	private final int posicoes;
+
+	/** Gravadores das threads que registraram valores e ainda não foram recolhidos. Protegida pelo monitor deste histograma. */
+	private final List<Gravador> gravadores;
+	/** Soma dos contadores das threads já encerradas, com as mesmas posições de um gravador. Protegida pelo monitor deste histograma. */
+	private final long[] encerradas;
+	private final ThreadLocal<AtomicLongArray> gravadorDaThread;
+
+	public HistogramaConcorrente() {
+		this(0);
+	}
+
+	/**
+	 * Construtor da classe.
+	 * @param quantosContadores a quantidade de contadores avulsos mantidos junto com o histograma.
+	 */
+	public HistogramaConcorrente(int quantosContadores) {
+		posicoes = CONTADORES + quantosContadores;
+		gravadores = new ArrayList<>();
+		encerradas = new long[posicoes];
+		gravadorDaThread = ThreadLocal.withInitial(this::novoGravador);
+	}
+
+	private synchronized AtomicLongArray novoGravador() {
+
+		Gravador gravador = new Gravador(posicoes);
+
+		recolherEncerradas();
+		gravadores.add(gravador);
+		return gravador.contadores;
+	}
+
+	/**
+	 * Soma ao acumulador comum os contadores das threads já encerradas e os retira da lista de gravadores.
+	 * Uma thread encerrada não escreve mais nos seus contadores, e o término dela é visível para quem
+	 * observa {@link Thread#isAlive()} falso, com todas as escritas feitas antes dele.
+	 * Deve ser chamado com o monitor deste histograma.
+	 */
+	private void recolherEncerradas() {
+
+		Iterator<Gravador> iterador = gravadores.iterator();
+		Gravador gravador;
+
+		while (iterador.hasNext()) {
+			gravador = iterador.next();
+			if (!gravador.thread.isAlive()) {
+				for (int i = 0; i < posicoes; i++) {
+					if (i == MAXIMO)
+						encerradas[i] = Math.max(encerradas[i], gravador.contadores.get(i));
+					else
+						encerradas[i] += gravador.contadores.get(i);
+				}
+				iterador.remove();
+			}
+		}
+	}
+
+	/**
+	 * Registra um valor no histograma. Valores negativos são contados como 0.
+	 * @param valor o valor a ser registrado.
+	 */
+	public void registrar(long valor) {
+
+		AtomicLongArray gravador = gravadorDaThread.get();
+		int faixa;
+
+		if (valor < 0)
+			valor = 0;
+
+		faixa = Histograma.faixa(valor);
+		gravador.lazySet(faixa, gravador.get(faixa) + 1);
+		gravador.lazySet(QUANTIDADE, gravador.get(QUANTIDADE) + 1);
+		gravador.lazySet(SOMA, gravador.get(SOMA) + valor);
+		if (valor > gravador.get(MAXIMO))
+			gravador.lazySet(MAXIMO, valor);
+	}
+
+	/**
+	 * Soma um valor a um dos contadores avulsos da thread atual.
+	 * @param contador o índice do contador, entre 0 e a quantidade de contadores avulsos, exclusive.
+	 * @param valor o valor a ser somado.
+	 */
+	public void contar(int contador, long valor) {
+
+		AtomicLongArray gravador = gravadorDaThread.get();
+		int posicao = CONTADORES + contador;
+
+		gravador.lazySet(posicao, gravador.get(posicao) + valor);
+	}
+
+	/**
+	 * Retorna os totais dos contadores avulsos, somados os de todas as threads, até o momento.
+	 */
+	public synchronized long[] lerContadores() {
+
+		long[] totais = new long[posicoes - CONTADORES];
+
+		recolherEncerradas();
+		for (int i = 0; i < totais.length; i++)
+			totais[i] = encerradas[CONTADORES + i];
+		for (Gravador gravador : gravadores) {
+			for (int i = 0; i < totais.length; i++)
+				totais[i] += gravador.contadores.get(CONTADORES + i);
+		}
+		return totais;
+	}
+
+	/**
+	 * Retorna um histograma com todos os valores registrados até o momento, por todas as threads.
+	 * O histograma retornado é independente deste e não muda com os registros posteriores.
+	 */
+	public synchronized Histograma ler() {
+
+		Histograma soma = new Histograma();
+		long[] contagens = new long[Histograma.FAIXAS];
+		AtomicLongArray contadores;
+
+		recolherEncerradas();
+		soma.acumular(encerradas, encerradas[QUANTIDADE], encerradas[SOMA], encerradas[MAXIMO]);
+		for (Gravador gravador : gravadores) {
+			contadores = gravador.contadores;
+			for (int i = 0; i < Histograma.FAIXAS; i++)
+				contagens[i] = contadores.get(i);
+			soma.acumular(contagens, contadores.get(QUANTIDADE), contadores.get(SOMA), contadores.get(MAXIMO));
+		}
+		return soma;
+	}
+}
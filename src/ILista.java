@@ -0,0 +1,34 @@
+import java.io.IOException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Operações comuns às listas do sistema: {@link Lista}, encadeada, e {@link ListaVetor}, sobre um vetor.
+ * Os métodos de pesquisa registram a quantidade de comparações e o tempo da última pesquisa.
+ */
+public interface ILista<E> extends IMedicao, Iterable<E>, IPercorrivel {
+
+    public boolean vazia();
+    public void inserir(E novo, int posicao);
+    public void inserirFinal(E novo);
+    public E obter(int posicao);
+    public E remover(int posicao);
+    public E remover(E elemento);
+    public E pesquisar(E procurado);
+
+    /**
+     * Indica se a lista contém o elemento. A pesquisa é feita e medida como em {@link #pesquisar(Object)},
+     * mas a ausência do elemento é sinalizada pelo retorno, sem o custo de criar uma exceção.
+     */
+    public boolean contem(E procurado);
+    public int tamanho();
+    public int contarRepeticoes(Predicate<E> condicional);
+    public double calcularValorTotal(Function<E, Double> extrator);
+
+    /**
+     * Escreve no destino os itens da lista, um por linha, na ordem em que estão na lista.
+     * @param destino onde os itens serão escritos.
+     * @throws IOException se ocorrer um erro de escrita no destino.
+     */
+    public void percorrer(Appendable destino) throws IOException;
+}
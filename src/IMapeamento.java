@@ -1,8 +1,13 @@
-public interface IMapeamento<K, V> extends IMedicao {
+public interface IMapeamento<K, V> extends IMedicao, IPercorrivel {
 
     public int inserir(K chave, V item);
     public V pesquisar(K chave);
+
+    /**
+     * Indica se a chave está na estrutura. A pesquisa é feita e medida como em {@link #pesquisar(Object)},
+     * mas a ausência da chave é sinalizada pelo retorno, sem o custo de criar uma exceção.
+     */
+    public boolean contem(K chave);
     public V remover(K chave);
     public int tamanho();
-    public String percorrer();
 }
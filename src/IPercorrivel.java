@@ -0,0 +1,31 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Estruturas cujos itens podem ser escritos, um a um, em qualquer destino.
+ * Só a escrita item a item precisa ser implementada; a representação em String é montada a partir dela.
+ */
+public interface IPercorrivel {
+
+    /**
+     * Escreve no destino os itens da estrutura, item a item, sem montar a representação completa em memória.
+     * @param destino onde os itens serão escritos (um {@link StringBuilder}, um {@link java.io.Writer}...).
+     * @throws IOException se ocorrer um erro de escrita no destino.
+     */
+    public void percorrer(Appendable destino) throws IOException;
+
+    /**
+     * Retorna, numa String, a representação escrita por {@link #percorrer(Appendable)}.
+     */
+    public default String percorrer() {
+
+        StringBuilder representacao = new StringBuilder();
+
+        try {
+            percorrer(representacao);
+        } catch (IOException excecao) {
+            throw new UncheckedIOException(excecao);
+        }
+        return representacao.toString();
+    }
+}
@@ -0,0 +1,185 @@
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * Índice imutável para pesquisa de itens em catálogos que não são mais modificados após a carga.
+ *
+ * Os itens são "congelados" em vetores contíguos no leiaute de Eytzinger: a posição 1 guarda a raiz
+ * de uma árvore binária de busca completa, e os filhos da posição k estão nas posições 2k e 2k+1.
+ * A pesquisa desce pelos vetores sem seguir referências entre nós espalhados pela memória, e os primeiros
+ * níveis da árvore, visitados por todas as pesquisas, ficam juntos no início dos vetores.
+ * A descida não depende do resultado de cada comparação para decidir se continua: ela sempre vai até
+ * a última camada e, ao final, recupera a posição do menor item maior ou igual ao procurado.
+ */
+public class IndiceEstatico<K, V> implements IMapeamento<K, V> {
+
+	private static final Metrica METRICA_PESQUISA = RegistroMetricas.metrica("IndiceEstatico", "pesquisar");
+
+	private final Object[] chaves;
+	private final Object[] itens;
+	private final int tamanho;
+	private final Comparator<K> comparador;
+	private long comparacoes;
+	private long duracao;
+
+	/**
+	 * Construtor da classe.
+	 * Cria o índice com os itens da árvore fornecida, usando o mesmo comparador.
+	 * Modificações posteriores na árvore não se refletem no índice.
+	 * @param arvore a árvore binária de busca cujos itens serão indexados.
+	 */
+	public IndiceEstatico(ABB<K, V> arvore) {
+		this(arvore.entradasEmOrdem(), arvore.comparador);
+	}
+
+	/**
+	 * Construtor da classe.
+	 * @param entradas os pares chave-item a serem indexados, em ordem crescente e sem chaves repetidas.
+	 * @param comparador o comparador que define a ordem das chaves.
+	 */
+	public IndiceEstatico(Entrada<K, V>[] entradas, Comparator<K> comparador) {
+
+		this.tamanho = entradas.length;
+		this.comparador = comparador;
+		this.chaves = new Object[tamanho + 1];
+		this.itens = new Object[tamanho + 1];
+
+		for (int i = 1; i < tamanho; i++) {
+			if (comparador.compare(entradas[i - 1].getChave(), entradas[i].getChave()) >= 0)
+				throw new IllegalArgumentException("As entradas devem estar em ordem crescente e sem chaves repetidas.");
+		}
+
+		preencher(entradas, 0, 1);
+	}
+
+	/**
+	 * Recursivamente, distribui as entradas ordenadas pelas posições do leiaute de Eytzinger,
+	 * num processo análogo ao caminhamento em ordem da árvore implícita.
+	 * @param entradas as entradas, em ordem crescente de chave.
+	 * @param proxima a posição da próxima entrada a ser distribuída.
+	 * @param posicao a posição da árvore implícita que está sendo preenchida.
+	 * @return a posição da próxima entrada a ser distribuída, depois de preenchida a sub-árvore.
+	 */
+	private int preencher(Entrada<K, V>[] entradas, int proxima, int posicao) {
+
+		if (posicao <= tamanho) {
+			proxima = preencher(entradas, proxima, 2 * posicao);
+			chaves[posicao] = entradas[proxima].getChave();
+			itens[posicao] = entradas[proxima].getValor();
+			proxima = preencher(entradas, proxima + 1, 2 * posicao + 1);
+		}
+		return proxima;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V pesquisar(K chave) {
+
+		int posicao = localizar(chave);
+
+		if (posicao == 0)
+			throw new NoSuchElementException("O item não foi localizado no índice!");
+		return (V) itens[posicao];
+	}
+
+	@Override
+	public boolean contem(K chave) {
+		return localizar(chave) != 0;
+	}
+
+	/**
+	 * Localiza a posição da chave nos vetores e registra a pesquisa.
+	 * @return a posição da chave, ou 0 se ela não estiver no índice.
+	 */
+	@SuppressWarnings("unchecked")
+	private int localizar(K chave) {
+
+		int posicao = 1;
+		long quantasComparacoes = 0;
+		long inicioPesquisa = Metrica.iniciar();
+
+		while (posicao <= tamanho) {
+			quantasComparacoes++;
+			/// Vai para o filho direito (2k + 1) se a chave da posição for menor do que a procurada
+			/// (comparação negativa, bit de sinal 1), ou para o filho esquerdo (2k), caso contrário.
+			posicao = 2 * posicao + (comparador.compare((K) chaves[posicao], chave) >>> 31);
+		}
+		/// Desfaz as descidas à direita feitas depois da última descida à esquerda:
+		/// a posição resultante é a do menor item maior ou igual ao procurado (ou 0, se não houver).
+		posicao >>= Integer.numberOfTrailingZeros(~posicao) + 1;
+
+		quantasComparacoes++;
+		if ((posicao != 0) && (comparador.compare((K) chaves[posicao], chave) == 0)) {
+			duracao = METRICA_PESQUISA.registrarDesde(inicioPesquisa, quantasComparacoes, true);
+			comparacoes = quantasComparacoes;
+			return posicao;
+		}
+
+		duracao = METRICA_PESQUISA.registrarDesde(inicioPesquisa, quantasComparacoes, false);
+		comparacoes = quantasComparacoes;
+		return 0;
+	}
+
+	@Override
+	public int inserir(K chave, V item) {
+		throw new UnsupportedOperationException("O índice estático não pode ser modificado.");
+	}
+
+	@Override
+	public V remover(K chave) {
+		throw new UnsupportedOperationException("O índice estático não pode ser modificado.");
+	}
+
+	@Override
+	public int tamanho() {
+		return tamanho;
+	}
+
+	/**
+	 * Escreve os itens do índice, um por linha, em ordem crescente de chave.
+	 */
+	@Override
+	public void percorrer(Appendable destino) throws IOException {
+
+		int posicao = 1;
+
+		if (tamanho == 0)
+			return;
+
+		/// O primeiro item em ordem é o da posição mais à esquerda da árvore implícita.
+		while (2 * posicao <= tamanho)
+			posicao = 2 * posicao;
+
+		while (posicao != 0) {
+			destino.append(String.valueOf(itens[posicao])).append("\n");
+
+			if (2 * posicao + 1 <= tamanho) {
+				/// O sucessor é o item mais à esquerda da sub-árvore direita.
+				posicao = 2 * posicao + 1;
+				while (2 * posicao <= tamanho)
+					posicao = 2 * posicao;
+			} else {
+				/// O sucessor é o primeiro ancestral do qual se desceu pela esquerda.
+				while ((posicao & 1) == 1)
+					posicao >>= 1;
+				posicao >>= 1;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return percorrer();
+	}
+
+	@Override
+	public long getComparacoes() {
+		return comparacoes;
+	}
+
+	@Override
+	public double getTempo() {
+		return duracao / 1_000_000.0;
+	}
+}
@@ -0,0 +1,375 @@
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Índice invertido dos pedidos por produto, para consultas de co-ocorrência: pedidos que contêm
+ * todos os produtos de um conjunto e produtos mais comprados junto com um produto.
+ *
+ * Para cada produto, o índice guarda a lista ordenada dos identificadores dos pedidos que o contêm
+ * (sua lista de postagens). As listas são comprimidas: cada identificador é gravado como a diferença
+ * para o anterior, em bytes de 7 bits (varint), de modo que pedidos próximos ocupam um byte cada.
+ * A cada {@value #BLOCO} postagens, o índice guarda o identificador e a posição no vetor de bytes,
+ * o que permite saltar blocos inteiros durante a interseção de listas.
+ *
+ * O índice também guarda, para cada pedido, os produtos distintos que ele contém, em vetores de inteiros.
+ * O índice é imutável: pedidos criados depois da sua construção não são considerados.
+ */
+public class IndiceInvertido {
+
+    /** Quantidade de postagens entre dois pontos de salto. */
+    private static final int BLOCO = 64;
+
+    /**
+     * Lista de postagens comprimida de um produto.
+     */
+    private static final class Postagens {
+        private final byte[] dados;
+        private final int quantidade;
+        private final int[] saltosValor;
+        private final int[] saltosPosicao;
+
+        /**
+         * Comprime uma lista de identificadores em ordem estritamente crescente.
+         */
+        private Postagens(int[] identificadores, int quantidade) {
+            byte[] bytes = new byte[quantidade * 5];
+            int posicao = 0, anterior = 0, delta;
+
+            this.quantidade = quantidade;
+            this.saltosValor = new int[(quantidade + BLOCO - 1) / BLOCO];
+            this.saltosPosicao = new int[saltosValor.length];
+
+            for (int i = 0; i < quantidade; i++) {
+                delta = identificadores[i] - anterior;
+                while ((delta & ~0x7F) != 0) {
+                    bytes[posicao++] = (byte) ((delta & 0x7F) | 0x80);
+                    delta >>>= 7;
+                }
+                bytes[posicao++] = (byte) delta;
+                anterior = identificadores[i];
+
+                if (i % BLOCO == 0) {
+                    saltosValor[i / BLOCO] = identificadores[i];
+                    saltosPosicao[i / BLOCO] = posicao;
+                }
+            }
+            this.dados = Arrays.copyOf(bytes, posicao);
+        }
+    }
+
+    /**
+     * Posição de leitura numa lista de postagens, que só avança.
+     */
+    private static final class Cursor {
+        private final Postagens postagens;
+        private int indice;
+        private int posicao;
+        private int atual;
+
+        /** Cria o cursor posicionado na primeira postagem, que deve existir. */
+        private Cursor(Postagens postagens) {
+            this.postagens = postagens;
+            saltar(0);
+        }
+
+        private void saltar(int bloco) {
+            indice = bloco * BLOCO;
+            atual = postagens.saltosValor[bloco];
+            posicao = postagens.saltosPosicao[bloco];
+        }
+
+        /**
+         * Avança para a postagem seguinte.
+         * @return false se não houver postagem seguinte.
+         */
+        private boolean proximo() {
+            byte b;
+            int delta = 0, deslocamento = 0;
+
+            if (indice + 1 >= postagens.quantidade)
+                return false;
+
+            do {
+                b = postagens.dados[posicao++];
+                delta |= (b & 0x7F) << deslocamento;
+                deslocamento += 7;
+            } while (b < 0);
+
+            atual += delta;
+            indice++;
+            return true;
+        }
+
+        /**
+         * Avança até a primeira postagem maior ou igual ao alvo, saltando os blocos que terminam antes dele.
+         * @return false se todas as postagens restantes forem menores do que o alvo.
+         */
+        private boolean avancarAte(int alvo) {
+            int inicio, fim, meio, bloco;
+
+            if (atual >= alvo)
+                return true;
+
+            /// Último bloco que começa num identificador menor ou igual ao alvo.
+            inicio = indice / BLOCO + 1;
+            fim = postagens.saltosValor.length - 1;
+            bloco = -1;
+            while (inicio <= fim) {
+                meio = (inicio + fim) >>> 1;
+                if (postagens.saltosValor[meio] <= alvo) {
+                    bloco = meio;
+                    inicio = meio + 1;
+                } else {
+                    fim = meio - 1;
+                }
+            }
+            if (bloco != -1)
+                saltar(bloco);
+
+            while (atual < alvo) {
+                if (!proximo())
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    /** Identificadores dos produtos com pedidos, em ordem crescente. A posição de cada um é seu índice denso. */
+    private final int[] idsProdutos;
+    private final Postagens[] postagens;
+
+    /** Pedidos em ordem crescente de identificador. */
+    private final Pedido[] pedidos;
+    private final int[] idsPedidos;
+
+    /** Índices densos dos produtos distintos de cada pedido: os do pedido i vão de inicioItens[i] a inicioItens[i + 1]. */
+    private final int[] inicioItens;
+    private final int[] itens;
+
+    /**
+     * Constrói o índice a partir dos pedidos.
+     * @param todosOsPedidos os pedidos a serem indexados, com identificadores distintos, em qualquer ordem.
+     */
+    public IndiceInvertido(Iterable<Pedido> todosOsPedidos) {
+
+        int quantPedidos = 0, quantItens = 0, distintos;
+        int[] produtosDoPedido = new int[16];
+        int[] itensPorId, ordenados, quantPorProduto, preenchidos;
+        int[][] identificadores;
+
+        for (Pedido pedido : todosOsPedidos) {
+            quantPedidos++;
+            quantItens += pedido.getQuantosProdutos();
+        }
+
+        pedidos = new Pedido[quantPedidos];
+        quantPedidos = 0;
+        for (Pedido pedido : todosOsPedidos)
+            pedidos[quantPedidos++] = pedido;
+        Arrays.sort(pedidos);
+
+        idsPedidos = new int[pedidos.length];
+        inicioItens = new int[pedidos.length + 1];
+        itensPorId = new int[quantItens];
+        quantItens = 0;
+
+        /// Produtos distintos de cada pedido, em ordem crescente de identificador.
+        for (int i = 0; i < pedidos.length; i++) {
+            idsPedidos[i] = pedidos[i].getIdPedido();
+            if ((i > 0) && (idsPedidos[i] == idsPedidos[i - 1]))
+                throw new IllegalArgumentException("Pedido repetido: " + idsPedidos[i]);
+
+            if (produtosDoPedido.length < pedidos[i].getQuantosProdutos())
+                produtosDoPedido = new int[pedidos[i].getQuantosProdutos()];
+            distintos = 0;
+            for (Produto produto : pedidos[i].getProdutos())
+                produtosDoPedido[distintos++] = produto.idProduto;
+            Arrays.sort(produtosDoPedido, 0, distintos);
+
+            inicioItens[i] = quantItens;
+            for (int j = 0; j < distintos; j++) {
+                if ((j == 0) || (produtosDoPedido[j] != produtosDoPedido[j - 1]))
+                    itensPorId[quantItens++] = produtosDoPedido[j];
+            }
+        }
+        inicioItens[pedidos.length] = quantItens;
+
+        /// Índices densos dos produtos.
+        ordenados = Arrays.copyOf(itensPorId, quantItens);
+        Arrays.sort(ordenados);
+        distintos = 0;
+        for (int i = 0; i < ordenados.length; i++) {
+            if ((i == 0) || (ordenados[i] != ordenados[i - 1]))
+                ordenados[distintos++] = ordenados[i];
+        }
+        idsProdutos = Arrays.copyOf(ordenados, distintos);
+
+        itens = new int[quantItens];
+        quantPorProduto = new int[distintos];
+        for (int i = 0; i < quantItens; i++) {
+            itens[i] = Arrays.binarySearch(idsProdutos, itensPorId[i]);
+            quantPorProduto[itens[i]]++;
+        }
+
+        /// Listas de postagens: os pedidos são percorridos em ordem, então cada lista já sai ordenada.
+        identificadores = new int[distintos][];
+        for (int p = 0; p < distintos; p++)
+            identificadores[p] = new int[quantPorProduto[p]];
+        preenchidos = new int[distintos];
+        for (int i = 0; i < pedidos.length; i++) {
+            for (int j = inicioItens[i]; j < inicioItens[i + 1]; j++)
+                identificadores[itens[j]][preenchidos[itens[j]]++] = idsPedidos[i];
+        }
+
+        postagens = new Postagens[distintos];
+        for (int p = 0; p < distintos; p++) {
+            postagens[p] = new Postagens(identificadores[p], quantPorProduto[p]);
+            identificadores[p] = null;
+        }
+    }
+
+    private int indiceProduto(int idProduto) {
+        int indice = Arrays.binarySearch(idsProdutos, idProduto);
+        return (indice >= 0) ? indice : -1;
+    }
+
+    /**
+     * Quantidade de pedidos que contêm o produto.
+     */
+    public int quantidadePedidosCom(int idProduto) {
+        int indice = indiceProduto(idProduto);
+        return (indice == -1) ? 0 : postagens[indice].quantidade;
+    }
+
+    /**
+     * Identificadores, em ordem crescente, dos pedidos que contêm todos os produtos informados.
+     * As listas de postagens são percorridas juntas, da menor para a maior: cada lista salta direto
+     * para o candidato da vez, sem descompactar os blocos que ficam antes dele.
+     * @param idsProdutosProcurados identificadores dos produtos (ao menos um).
+     * @return os identificadores dos pedidos, possivelmente nenhum.
+     */
+    public int[] pedidosComTodos(int... idsProdutosProcurados) {
+
+        Cursor[] cursores = new Cursor[idsProdutosProcurados.length];
+        int[] resultado;
+        int quantidade = 0, candidato, concordam, indice;
+
+        if (idsProdutosProcurados.length == 0)
+            throw new IllegalArgumentException("Informe ao menos um produto.");
+
+        for (int i = 0; i < cursores.length; i++) {
+            indice = indiceProduto(idsProdutosProcurados[i]);
+            if (indice == -1)
+                return new int[0];
+            cursores[i] = new Cursor(postagens[indice]);
+        }
+        Arrays.sort(cursores, (a, b) -> Integer.compare(a.postagens.quantidade, b.postagens.quantidade));
+
+        resultado = new int[cursores[0].postagens.quantidade];
+        if (cursores.length == 1) {
+            do {
+                resultado[quantidade++] = cursores[0].atual;
+            } while (cursores[0].proximo());
+            return resultado;
+        }
+
+        candidato = cursores[0].atual;
+        concordam = 0;
+        for (int i = 0; ; i = (i + 1) % cursores.length) {
+            if (!cursores[i].avancarAte(candidato))
+                break;
+            if (cursores[i].atual == candidato) {
+                concordam++;
+            } else {
+                candidato = cursores[i].atual;
+                concordam = 1;
+            }
+            if (concordam == cursores.length) {
+                resultado[quantidade++] = candidato;
+                if (!cursores[i].proximo())
+                    break;
+                candidato = cursores[i].atual;
+                concordam = 1;
+            }
+        }
+        return Arrays.copyOf(resultado, quantidade);
+    }
+
+    /**
+     * Pedidos que contêm todos os produtos informados, em ordem crescente de identificador.
+     */
+    public Lista<Pedido> listarPedidosComTodos(int... idsProdutosProcurados) {
+        Lista<Pedido> lista = new Lista<>();
+        for (int idPedido : pedidosComTodos(idsProdutosProcurados))
+            lista.inserirFinal(pedidos[Arrays.binarySearch(idsPedidos, idPedido)]);
+        return lista;
+    }
+
+    /**
+     * Produtos mais comprados junto com o produto informado: os que aparecem em mais pedidos que também
+     * contêm o produto. Os empates são resolvidos pelo menor identificador.
+     * @param idProduto o produto de referência.
+     * @param quantos quantidade máxima de produtos retornados.
+     * @return pares (identificador do produto, quantidade de pedidos em comum), do mais frequente ao menos frequente.
+     */
+    @SuppressWarnings("unchecked")
+    public Entrada<Integer, Integer>[] maisCompradosCom(int idProduto, int quantos) {
+
+        int indice = indiceProduto(idProduto);
+        int[] contagens;
+        int pedido = 0;
+        PriorityQueue<Integer> maiores;
+        Entrada<Integer, Integer>[] resultado;
+        Cursor cursor;
+
+        if (quantos < 0)
+            throw new IllegalArgumentException("A quantidade de produtos não pode ser negativa.");
+        if ((indice == -1) || (quantos == 0))
+            return new Entrada[0];
+
+        contagens = new int[postagens.length];
+        cursor = new Cursor(postagens[indice]);
+        do {
+            /// Os pedidos da lista estão em ordem crescente: a busca recomeça de onde parou.
+            pedido = Arrays.binarySearch(idsPedidos, pedido, idsPedidos.length, cursor.atual);
+            for (int j = inicioItens[pedido]; j < inicioItens[pedido + 1]; j++)
+                contagens[itens[j]]++;
+        } while (cursor.proximo());
+        contagens[indice] = 0;
+
+        /// Os "quantos" maiores: o topo da fila é o menor dos selecionados até o momento.
+        maiores = new PriorityQueue<>(quantos + 1, (a, b) -> (contagens[a] != contagens[b])
+                ? Integer.compare(contagens[a], contagens[b]) : Integer.compare(b, a));
+        for (int p = 0; p < contagens.length; p++) {
+            if (contagens[p] > 0) {
+                maiores.add(p);
+                if (maiores.size() > quantos)
+                    maiores.poll();
+            }
+        }
+
+        resultado = new Entrada[maiores.size()];
+        for (int i = resultado.length - 1; i >= 0; i--) {
+            int p = maiores.poll();
+            resultado[i] = new Entrada<>(idsProdutos[p], contagens[p]);
+        }
+        return resultado;
+    }
+
+    /**
+     * Quantidade de pedidos indexados.
+     */
+    public int quantidadePedidos() {
+        return pedidos.length;
+    }
+
+    /**
+     * Quantidade de bytes ocupados pelas listas de postagens comprimidas.
+     */
+    public long getBytesPostagens() {
+        long total = 0;
+        for (Postagens lista : postagens)
+            total += lista.dados.length;
+        return total;
+    }
+}
@@ -0,0 +1,281 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Instantâneo binário do catálogo de produtos e dos pedidos, gravado depois da carga para que a próxima
+ * execução não precise interpretar o arquivo texto nem gerar os pedidos novamente.
+ *
+ * Formato (inteiros big-endian), versão {@value #VERSAO}:
+ * <pre>
+ * cabeçalho      magia (int), versão (short), reservado (short),
+ *                tamanho e data de modificação do arquivo texto de origem (long, long),
+ *                quantidade de produtos (int), bytes da tabela de textos (int),
+ *                quantidade de pedidos (int), quantidade de itens de pedidos (int)
+ * textos         descrições dos produtos em UTF-8, concatenadas
+ * produtos       registros de {@value #TAMANHO_PRODUTO} bytes: id (int), tipo (byte), 3 bytes reservados,
+ *                posição e tamanho da descrição na tabela de textos (int, int), preço de custo (double),
+ *                margem de lucro (double), validade em dias desde 01/01/1970 (long; {@link Long#MIN_VALUE} se não houver)
+ * pedidos        registros de {@value #TAMANHO_PEDIDO} bytes: id (int), data em dias desde 01/01/1970 (int),
+ *                forma de pagamento (byte), 3 bytes reservados, quantidade de itens (int)
+ * itens          id do produto de cada item (int), na ordem dos pedidos e dos itens em cada pedido
+ * verificação    CRC-32 de todos os bytes anteriores (long)
+ * </pre>
+ * O arquivo é lido por mapeamento em memória, com acesso direto às posições dos registros de tamanho fixo.
+ * Arquivos de outra versão, corrompidos ou gravados a partir de outro arquivo texto são rejeitados.
+ */
+public class InstantaneoCatalogo {
+
+    /** Identificação do formato: os bytes "AEDi". */
+    private static final int MAGIA = 0x41454469;
+    private static final short VERSAO = 1;
+
+    private static final int TAMANHO_CABECALHO = 4 + 2 + 2 + 8 + 8 + 4 + 4 + 4 + 4;
+    private static final int TAMANHO_PRODUTO = 40;
+    private static final int TAMANHO_PEDIDO = 16;
+    private static final int TAMANHO_ITEM = 4;
+    private static final int TAMANHO_VERIFICACAO = 8;
+
+    private static final byte NAO_PERECIVEL = 1;
+    private static final byte PERECIVEL = 2;
+    private static final long SEM_VALIDADE = Long.MIN_VALUE;
+
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    private final Produto[] produtos;
+    private final Lista<Pedido> pedidos;
+
+    private InstantaneoCatalogo(Produto[] produtos, Lista<Pedido> pedidos) {
+        this.produtos = produtos;
+        this.pedidos = pedidos;
+    }
+
+    /**
+     * Produtos do instantâneo, na ordem em que foram gravados.
+     */
+    public Produto[] getProdutos() {
+        return produtos;
+    }
+
+    /**
+     * Pedidos do instantâneo, na ordem em que foram gravados.
+     */
+    public Lista<Pedido> getPedidos() {
+        return pedidos;
+    }
+
+    /**
+     * Registra cada pedido do instantâneo na lista de pedidos de cada um dos seus produtos, na ordem dos pedidos,
+     * como faz o {@link GeradorPedidos}.
+     * @param pedidosPorProduto a tabela de pedidos por produto a ser preenchida.
+     */
+    public void registrarPedidos(TabelaHashConcorrente<Produto, ListaIndexada<Pedido>> pedidosPorProduto) {
+        for (Pedido pedido : pedidos) {
+            for (Produto produto : pedido.getProdutos())
+                pedidosPorProduto.pesquisarOuInserir(produto, p -> new ListaIndexada<>(Pedido::getIdPedido))
+                        .inserirFinal(pedido);
+        }
+    }
+
+    /**
+     * Grava o instantâneo. O arquivo é escrito com outro nome e renomeado ao final, de modo que uma gravação
+     * interrompida não deixe um instantâneo incompleto no lugar do anterior.
+     * @param arquivo arquivo do instantâneo.
+     * @param origem arquivo texto de onde os produtos foram lidos, cujo tamanho e data de modificação são registrados.
+     * @param produtos os produtos do catálogo.
+     * @param pedidos os pedidos a serem gravados.
+     * @throws IOException se ocorrer um erro de escrita.
+     */
+    public static void gravar(Path arquivo, Path origem, Produto[] produtos, Lista<Pedido> pedidos) throws IOException {
+
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        byte[][] descricoes = new byte[produtos.length][];
+        int bytesTextos = 0, quantItens = 0, posicaoTexto = 0;
+        CRC32 verificacao = new CRC32();
+
+        for (int i = 0; i < produtos.length; i++) {
+            descricoes[i] = produtos[i].descricao.getBytes(StandardCharsets.UTF_8);
+            bytesTextos += descricoes[i].length;
+        }
+        for (Pedido pedido : pedidos)
+            quantItens += pedido.getQuantosProdutos();
+
+        try (OutputStream arquivoSaida = Files.newOutputStream(temporario)) {
+            DataOutputStream saida = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(arquivoSaida, TAMANHO_BUFFER), verificacao));
+
+            saida.writeInt(MAGIA);
+            saida.writeShort(VERSAO);
+            saida.writeShort(0);
+            saida.writeLong(Files.size(origem));
+            saida.writeLong(Files.getLastModifiedTime(origem).toMillis());
+            saida.writeInt(produtos.length);
+            saida.writeInt(bytesTextos);
+            saida.writeInt(pedidos.tamanho());
+            saida.writeInt(quantItens);
+
+            for (byte[] descricao : descricoes)
+                saida.write(descricao);
+
+            for (int i = 0; i < produtos.length; i++) {
+                saida.writeInt(produtos[i].idProduto);
+                if (produtos[i] instanceof ProdutoPerecivel) {
+                    saida.writeByte(PERECIVEL);
+                } else {
+                    saida.writeByte(NAO_PERECIVEL);
+                }
+                saida.write(new byte[3]);
+                saida.writeInt(posicaoTexto);
+                saida.writeInt(descricoes[i].length);
+                saida.writeDouble(produtos[i].precoCusto);
+                saida.writeDouble(produtos[i].margemLucro);
+                if (produtos[i] instanceof ProdutoPerecivel) {
+                    saida.writeLong(((ProdutoPerecivel) produtos[i]).getDataDeValidade().toEpochDay());
+                } else {
+                    saida.writeLong(SEM_VALIDADE);
+                }
+                posicaoTexto += descricoes[i].length;
+            }
+
+            for (Pedido pedido : pedidos) {
+                saida.writeInt(pedido.getIdPedido());
+                saida.writeInt((int) pedido.getDataPedido().toEpochDay());
+                saida.writeByte(pedido.getFormaDePagamento());
+                saida.write(new byte[3]);
+                saida.writeInt(pedido.getQuantosProdutos());
+            }
+
+            for (Pedido pedido : pedidos) {
+                for (Produto produto : pedido.getProdutos())
+                    saida.writeInt(produto.idProduto);
+            }
+
+            saida.flush();
+            /// O valor de verificação não entra no próprio cálculo: é gravado diretamente no arquivo.
+            new DataOutputStream(arquivoSaida).writeLong(verificacao.getValue());
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lê um instantâneo gravado por {@link #gravar}.
+     * @param arquivo arquivo do instantâneo.
+     * @param origem arquivo texto de onde os produtos foram lidos; o instantâneo só é aceito se o tamanho
+     * e a data de modificação registrados nele forem os deste arquivo.
+     * @return o instantâneo lido.
+     * @throws IOException se o arquivo não puder ser lido, for de outro formato ou versão, estiver corrompido
+     * ou não corresponder ao arquivo de origem.
+     */
+    public static InstantaneoCatalogo ler(Path arquivo, Path origem) throws IOException {
+
+        MappedByteBuffer dados;
+        CRC32 verificacao = new CRC32();
+        int tamanho, quantProdutos, bytesTextos, quantPedidos, quantItens;
+        int inicioTextos, inicioProdutos, inicioPedidos, inicioItens;
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (canal.size() < TAMANHO_CABECALHO + TAMANHO_VERIFICACAO || canal.size() > Integer.MAX_VALUE)
+                throw new IOException("Tamanho inválido para um instantâneo: " + canal.size() + " bytes.");
+            dados = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        tamanho = dados.limit();
+
+        if (dados.getInt(0) != MAGIA)
+            throw new IOException("O arquivo " + arquivo + " não é um instantâneo do catálogo.");
+        if (dados.getShort(4) != VERSAO)
+            throw new IOException("Versão de instantâneo não suportada: " + dados.getShort(4) + ".");
+        if ((dados.getLong(8) != Files.size(origem)) || (dados.getLong(16) != Files.getLastModifiedTime(origem).toMillis()))
+            throw new IOException("O instantâneo não corresponde ao arquivo " + origem + ".");
+
+        verificacao.update(dados.slice(0, tamanho - TAMANHO_VERIFICACAO));
+        if (dados.getLong(tamanho - TAMANHO_VERIFICACAO) != verificacao.getValue())
+            throw new IOException("O instantâneo está corrompido.");
+
+        quantProdutos = dados.getInt(24);
+        bytesTextos = dados.getInt(28);
+        quantPedidos = dados.getInt(32);
+        quantItens = dados.getInt(36);
+
+        inicioTextos = TAMANHO_CABECALHO;
+        inicioProdutos = inicioTextos + bytesTextos;
+        inicioPedidos = inicioProdutos + quantProdutos * TAMANHO_PRODUTO;
+        inicioItens = inicioPedidos + quantPedidos * TAMANHO_PEDIDO;
+        if (inicioItens + (long) quantItens * TAMANHO_ITEM + TAMANHO_VERIFICACAO != tamanho)
+            throw new IOException("O tamanho do instantâneo não corresponde às quantidades do cabeçalho.");
+
+        try {
+            Produto[] produtos = lerProdutos(dados, inicioTextos, inicioProdutos, quantProdutos);
+            Lista<Pedido> pedidos = lerPedidos(dados, inicioPedidos, inicioItens, quantPedidos, produtos);
+            return new InstantaneoCatalogo(produtos, pedidos);
+        } catch (IllegalArgumentException | NoSuchElementException excecao) {
+            throw new IOException("Dados inválidos no instantâneo: " + excecao.getMessage(), excecao);
+        }
+    }
+
+    private static Produto[] lerProdutos(MappedByteBuffer dados, int inicioTextos, int inicioProdutos, int quantidade) {
+
+        Produto[] produtos = new Produto[quantidade];
+        byte[] texto;
+        String descricao;
+        int registro, id;
+        double precoCusto, margemLucro;
+        long validade;
+
+        for (int i = 0; i < quantidade; i++) {
+            registro = inicioProdutos + i * TAMANHO_PRODUTO;
+            id = dados.getInt(registro);
+            texto = new byte[dados.getInt(registro + 12)];
+            dados.get(inicioTextos + dados.getInt(registro + 8), texto);
+            descricao = new String(texto, StandardCharsets.UTF_8);
+            precoCusto = dados.getDouble(registro + 16);
+            margemLucro = dados.getDouble(registro + 24);
+            validade = dados.getLong(registro + 32);
+
+            if (dados.get(registro + 4) == PERECIVEL) {
+                produtos[i] = new ProdutoPerecivel(id, descricao, precoCusto, margemLucro, LocalDate.ofEpochDay(validade));
+            } else {
+                produtos[i] = new ProdutoNaoPerecivel(id, descricao, precoCusto, margemLucro);
+            }
+        }
+        return produtos;
+    }
+
+    private static Lista<Pedido> lerPedidos(MappedByteBuffer dados, int inicioPedidos, int inicioItens,
+            int quantidade, Produto[] produtos) {
+
+        TabelaHashInt<Produto> produtosPorId = new TabelaHashInt<>(produtos.length);
+        Lista<Pedido> pedidos = new Lista<>();
+        Pedido pedido;
+        int registro, quantItens;
+        int item = inicioItens;
+
+        for (Produto produto : produtos)
+            produtosPorId.inserir(produto.idProduto, produto);
+
+        for (int i = 0; i < quantidade; i++) {
+            registro = inicioPedidos + i * TAMANHO_PEDIDO;
+            pedido = new Pedido(dados.getInt(registro), LocalDate.ofEpochDay(dados.getInt(registro + 4)), dados.get(registro + 8));
+            Pedido.registrarIdentificador(pedido.getIdPedido());
+
+            quantItens = dados.getInt(registro + 12);
+            for (int j = 0; j < quantItens; j++) {
+                pedido.incluirProduto(produtosPorId.pesquisar(dados.getInt(item)));
+                item += TAMANHO_ITEM;
+            }
+            pedidos.inserirFinal(pedido);
+        }
+        return pedidos;
+    }
+}
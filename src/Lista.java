@@ -1,15 +1,18 @@
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
-public class Lista<E> implements IMedicao {
+public class Lista<E> implements ILista<E> {
+
+	private static final Metrica METRICA_PESQUISA = RegistroMetricas.metrica("Lista", "pesquisar");
 
 	private Celula<E> primeiro;
 	private Celula<E> ultimo;
 	private int tamanho;
 	private long comparacoes;
-	private long inicio;
-	private long termino;
+	private long duracao;
 	
 	public Lista() {
 		
@@ -32,6 +35,11 @@ public class Lista<E> implements IMedicao {
 			throw new IndexOutOfBoundsException("Não foi possível inserir o item na lista: "
 					+ "a posição informada é inválida!");
 		
+		if (posicao == this.tamanho) {  // inserção na última posição: não é preciso percorrer a lista
+			inserirFinal(novo);
+			return;
+		}
+		
 		anterior = this.primeiro;
 		for (int i = 0; i < posicao; i++)
 			anterior = anterior.getProximo();
@@ -43,9 +51,6 @@ public class Lista<E> implements IMedicao {
 		anterior.setProximo(novaCelula);
 		novaCelula.setProximo(proximaCelula);
 			
-		if (posicao == this.tamanho)  // a inserção ocorreu na última posição da lista
-			this.ultimo = novaCelula;
-			
 		this.tamanho++;		
 	}
 	
@@ -59,6 +64,52 @@ public class Lista<E> implements IMedicao {
 		this.tamanho++;
 	}
 	
+	/**
+	 * Move todos os itens da outra lista para o final desta, em tempo constante.
+	 * Ao final da operação, a outra lista fica vazia.
+	 * @param outra a lista cujos itens serão movidos para o final desta.
+	 */
+	public void concatenar(Lista<E> outra) {
+		
+		if (outra == this)
+			throw new IllegalArgumentException("Não é possível concatenar uma lista a ela mesma!");
+		
+		if (outra.vazia())
+			return;
+		
+		this.ultimo.setProximo(outra.primeiro.getProximo());
+		this.ultimo = outra.ultimo;
+		this.tamanho += outra.tamanho;
+		
+		outra.primeiro.setProximo(null);
+		outra.ultimo = outra.primeiro;
+		outra.tamanho = 0;
+	}
+	
+	/**
+	 * Retorna o item da posição informada, percorrendo a lista desde o início.
+	 * O último item é obtido em tempo constante.
+	 * @param posicao a posição do item, a partir de 0.
+	 * @return o item da posição informada.
+	 */
+	public E obter(int posicao) {
+		
+		Celula<E> aux;
+		
+		if ((posicao < 0) || (posicao >= this.tamanho))
+			throw new IndexOutOfBoundsException("Não foi possível obter o item da lista: "
+					+ "a posição informada é inválida!");
+		
+		if (posicao == this.tamanho - 1)
+			return this.ultimo.getItem();
+		
+		aux = this.primeiro.getProximo();
+		for (int i = 0; i < posicao; i++)
+			aux = aux.getProximo();
+		
+		return aux.getItem();
+	}
+	
 	private E removerProxima(Celula<E> anterior) {
 		
 		Celula<E> celulaRemovida, proximaCelula;
@@ -118,41 +169,101 @@ public class Lista<E> implements IMedicao {
 	
 	public E pesquisar(E procurado) {
 		
+		Celula<E> encontrada = localizar(procurado);
+		
+		if (encontrada == null)
+			throw new NoSuchElementException("Item não encontrado!");
+		return encontrada.getItem();
+	}
+	
+	@Override
+	public boolean contem(E procurado) {
+		return localizar(procurado) != null;
+	}
+	
+	/**
+	 * Localiza a célula do elemento e registra a pesquisa.
+	 * @return a célula do elemento, ou {@code null} se ele não estiver na lista.
+	 */
+	private Celula<E> localizar(E procurado) {
+		
 		Celula<E> aux;
-		comparacoes = 0;
-		inicio = System.nanoTime();
+		long quantasComparacoes = 0;
+		long inicioPesquisa = Metrica.iniciar();
 		
 		aux = this.primeiro.getProximo();
 		
 		while (aux != null) {
-			comparacoes++;
+			quantasComparacoes++;
 			if (aux.getItem().equals(procurado)) {
-				termino = System.nanoTime();
-				return aux.getItem();
+				duracao = METRICA_PESQUISA.registrarDesde(inicioPesquisa, quantasComparacoes, true);
+				comparacoes = quantasComparacoes;
+				return aux;
 			}
 			aux = aux.getProximo();
 		}
 		
-		throw new NoSuchElementException("Item não encontrado!");
+		duracao = METRICA_PESQUISA.registrarDesde(inicioPesquisa, quantasComparacoes, false);
+		comparacoes = quantasComparacoes;
+		return null;
 	}
 	
 	@Override
 	public String toString() {
+		return percorrer();
+	}
+	
+	/**
+	 * Escreve no destino os itens da lista, um por linha, na ordem em que estão na lista,
+	 * sem montar a representação completa da lista em memória.
+	 * @param destino onde os itens serão escritos.
+	 * @throws IOException se ocorrer um erro de escrita no destino.
+	 */
+	public void percorrer(Appendable destino) throws IOException {
 		
 		Celula<E> aux;
-		String listaString = "A lista está vazia!\n";
 		
-		if (!vazia()) {
-			listaString = "";
+		if (vazia()) {
+			destino.append("A lista está vazia!\n");
+			return;
+		}
 		
-			aux = this.primeiro.getProximo();
+		aux = this.primeiro.getProximo();
+		while (aux != null) {
+			destino.append(String.valueOf(aux.getItem())).append("\n");
+			aux = aux.getProximo();
+		}
+	}
+	
+	/**
+	 * Retorna um iterador que percorre os itens na ordem em que estão na lista, sem cópia dos itens.
+	 * A lista não deve ser modificada durante a iteração.
+	 */
+	@Override
+	public Iterator<E> iterator() {
 		
-			while (aux != null) {
-				listaString += aux.getItem() + "\n";
-				aux = aux.getProximo();
+		return new Iterator<E>() {
+			
+			private Celula<E> atual = primeiro.getProximo();
+			
+			@Override
+			public boolean hasNext() {
+				return (atual != null);
 			}
-		}
-		return listaString;
+			
+			@Override
+			public E next() {
+				
+				E item;
+				
+				if (atual == null)
+					throw new NoSuchElementException("Não há mais itens a percorrer.");
+				
+				item = atual.getItem();
+				atual = atual.getProximo();
+				return item;
+			}
+		};
 	}
 	
 	/**
@@ -207,6 +318,6 @@ public class Lista<E> implements IMedicao {
 
 	@Override
 	public double getTempo() {
-		return (termino - inicio) / 1_000_000;
+		return duracao / 1_000_000.0;
 	}
 }
@@ -0,0 +1,464 @@
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lista de saltos (skip list) ordenada, segura para uso por várias threads sem bloqueios.
+ *
+ * Os itens ficam numa lista encadeada ordenada pela chave (o nível 0) e cada nó participa também, com
+ * probabilidade 1/2 a cada nível, de listas mais esparsas acima dela, que permitem saltar por muitos nós
+ * de uma vez: pesquisa, inserção e remoção custam O(log n) em média.
+ *
+ * Todas as alterações de referências são feitas com compare-and-set, sem bloqueios. Um nó é removido em
+ * duas etapas: primeiro suas referências são marcadas, do nível mais alto ao nível 0, o que o retira logicamente
+ * da lista; depois ele é desligado fisicamente, por quem o removeu ou por qualquer thread que passe por ele.
+ * A pesquisa e os percursos apenas leem as referências e nunca esperam por outras threads, de modo que
+ * várias threads leitoras e uma ou mais escritoras podem usar a lista ao mesmo tempo.
+ * Os percursos refletem o estado da lista em algum momento durante a sua execução: itens inseridos ou
+ * removidos durante um percurso podem ou não aparecer nele.
+ */
+public class ListaDeSaltosConcorrente<K, V> implements IMapeamento<K, V>, Iterable<Entrada<K, V>> {
+
+    /** Nível mais alto de um nó; com probabilidade 1/2 por nível, comporta bilhões de itens. */
+    private static final int NIVEL_MAXIMO = 31;
+
+    /** Acesso atômico às posições dos vetores de referências dos nós. */
+    private static final VarHandle PROXIMO = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private static final Metrica METRICA_PESQUISA = RegistroMetricas.metrica("ListaDeSaltosConcorrente", "pesquisar");
+    private static final Metrica METRICA_INSERCAO = RegistroMetricas.metrica("ListaDeSaltosConcorrente", "inserir");
+    private static final Metrica METRICA_REMOCAO = RegistroMetricas.metrica("ListaDeSaltosConcorrente", "remover");
+
+    private static final class NoSaltos<K, V> {
+
+        private final K chave;
+        private final V item;
+        private final int nivel;
+
+        /**
+         * Referência ao próximo nó em cada nível: um {@link NoSaltos} ou, depois que este nó começou
+         * a ser removido, uma {@link Marca} que envolve o próximo nó e não pode mais ser trocada.
+         */
+        private final Object[] proximos;
+
+        private NoSaltos(K chave, V item, int nivel) {
+            this.chave = chave;
+            this.item = item;
+            this.nivel = nivel;
+            this.proximos = new Object[nivel + 1];
+        }
+    }
+
+    /**
+     * Referência marcada: o nó que a contém está sendo removido. Guardar a marca no próprio lugar da referência
+     * faz com que marcar e trocar a referência sejam uma única operação atômica.
+     */
+    private static final class Marca<K, V> {
+
+        private final NoSaltos<K, V> seguinte;
+
+        private Marca(NoSaltos<K, V> seguinte) {
+            this.seguinte = seguinte;
+        }
+    }
+
+    private final Comparator<K> comparador;
+
+    /** Sentinelas de início e de fim, menor e maior do que qualquer chave. */
+    private final NoSaltos<K, V> cabeca;
+    private final NoSaltos<K, V> cauda;
+
+    /** Nível mais alto em uso; as pesquisas começam por ele, e não por {@link #NIVEL_MAXIMO}. */
+    private final AtomicInteger nivelMaisAlto;
+    private final AtomicInteger tamanho;
+
+    private volatile long ultimasComparacoes;
+    private volatile long ultimoTempo;
+
+    /**
+     * Construtor da classe.
+     * O comparador padrão de ordem natural será utilizado.
+     */
+    @SuppressWarnings("unchecked")
+    public ListaDeSaltosConcorrente() {
+        this((Comparator<K>) Comparator.naturalOrder());
+    }
+
+    /**
+     * Construtor da classe.
+     * @param comparador o comparador a ser utilizado para ordenar as chaves.
+     */
+    public ListaDeSaltosConcorrente(Comparator<K> comparador) {
+        this.comparador = comparador;
+        this.cabeca = new NoSaltos<>(null, null, NIVEL_MAXIMO);
+        this.cauda = new NoSaltos<>(null, null, NIVEL_MAXIMO);
+        for (int i = 0; i <= NIVEL_MAXIMO; i++)
+            cabeca.proximos[i] = cauda;
+        this.nivelMaisAlto = new AtomicInteger(0);
+        this.tamanho = new AtomicInteger(0);
+    }
+
+    private static Object ler(NoSaltos<?, ?> no, int nivel) {
+        return PROXIMO.getVolatile(no.proximos, nivel);
+    }
+
+    private static boolean trocar(NoSaltos<?, ?> no, int nivel, Object esperado, Object novo) {
+        return PROXIMO.compareAndSet(no.proximos, nivel, esperado, novo);
+    }
+
+    /**
+     * Retorna o nó apontado pela referência, esteja ela marcada ou não.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> NoSaltos<K, V> seguinte(Object referencia) {
+        return (referencia instanceof Marca) ? ((Marca<K, V>) referencia).seguinte : (NoSaltos<K, V>) referencia;
+    }
+
+    /**
+     * Sorteia o nível de um novo nó: cada nível acima do 0 é alcançado com probabilidade 1/2.
+     */
+    private static int sortearNivel() {
+        int bits = ThreadLocalRandom.current().nextInt();
+        return Math.min(Integer.numberOfTrailingZeros(~bits), NIVEL_MAXIMO);
+    }
+
+    /**
+     * Garante que o nível mais alto em uso seja, no mínimo, o informado.
+     */
+    private void elevarNivel(int nivel) {
+
+        int atual;
+
+        while ((atual = nivelMaisAlto.get()) < nivel)
+            nivelMaisAlto.compareAndSet(atual, nivel);
+    }
+
+    /**
+     * Localiza, em cada nível, o último nó com chave menor do que a informada e o nó seguinte a ele,
+     * desligando pelo caminho os nós marcados para remoção.
+     * Os caminhos são preenchidos do nível mais alto em uso até o nível 0.
+     * @param chave a chave procurada.
+     * @param anteriores recebe, para cada nível, o último nó com chave menor do que a procurada.
+     * @param seguintes recebe, para cada nível, o nó seguinte ao anterior.
+     * @return verdadeiro se o nó seguinte, no nível 0, tiver a chave procurada.
+     */
+    private boolean localizar(K chave, NoSaltos<K, V>[] anteriores, NoSaltos<K, V>[] seguintes) {
+
+        NoSaltos<K, V> anterior, atual;
+        Object referencia;
+        int comparacao;
+
+        recomecar:
+        while (true) {
+            anterior = cabeca;
+            atual = cauda;
+            comparacao = 1;
+            for (int nivel = nivelMaisAlto.get(); nivel >= 0; nivel--) {
+                atual = seguinte(ler(anterior, nivel));
+                while (atual != cauda) {
+                    referencia = ler(atual, nivel);
+                    if (referencia instanceof Marca) {
+                        /// O nó atual está sendo removido: é desligado deste nível antes de seguir.
+                        if (!trocar(anterior, nivel, atual, seguinte(referencia)))
+                            continue recomecar;
+                        atual = seguinte(referencia);
+                        continue;
+                    }
+                    comparacao = comparador.compare(atual.chave, chave);
+                    if (comparacao >= 0)
+                        break;
+                    anterior = atual;
+                    atual = seguinte(referencia);
+                }
+                anteriores[nivel] = anterior;
+                seguintes[nivel] = atual;
+            }
+            return (atual != cauda) && (comparacao == 0);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private NoSaltos<K, V>[] novoCaminho() {
+        return new NoSaltos[NIVEL_MAXIMO + 1];
+    }
+
+    /**
+     * Insere o item associado à chave. O item passa a ser visível para as demais threads quando é ligado
+     * ao nível 0; os níveis de cima são ligados em seguida.
+     * @return a quantidade de itens da lista após a inserção.
+     * @throws IllegalArgumentException se um item com a mesma chave já estiver presente na lista.
+     */
+    @Override
+    public int inserir(K chave, V item) {
+
+        NoSaltos<K, V>[] anteriores = novoCaminho();
+        NoSaltos<K, V>[] seguintes = novoCaminho();
+        int nivelNovo = sortearNivel();
+        NoSaltos<K, V> novo;
+        Object referencia;
+        int quantidade;
+        long inicio;
+
+        if (chave == null)
+            throw new IllegalArgumentException("A lista não armazena chaves nulas.");
+
+        inicio = Metrica.iniciar();
+        elevarNivel(nivelNovo);
+        while (true) {
+            if (localizar(chave, anteriores, seguintes)) {
+                METRICA_INSERCAO.registrarDesde(inicio, 0, true);
+                throw new IllegalArgumentException("O item já foi inserido anteriormente na lista.");
+            }
+
+            novo = new NoSaltos<>(chave, item, nivelNovo);
+            for (int nivel = 0; nivel <= nivelNovo; nivel++)
+                novo.proximos[nivel] = seguintes[nivel];
+
+            if (trocar(anteriores[0], 0, seguintes[0], novo))
+                break;
+        }
+        quantidade = tamanho.incrementAndGet();
+
+        ligacao:
+        for (int nivel = 1; nivel <= nivelNovo; nivel++) {
+            while (true) {
+                /// Se o novo nó já começou a ser removido, os níveis restantes não são mais ligados.
+                referencia = ler(novo, nivel);
+                if (referencia instanceof Marca)
+                    break ligacao;
+                if ((referencia != seguintes[nivel]) && !trocar(novo, nivel, referencia, seguintes[nivel]))
+                    continue;
+                if (trocar(anteriores[nivel], nivel, seguintes[nivel], novo))
+                    break;
+                if (!localizar(chave, anteriores, seguintes) || (seguintes[0] != novo))
+                    break ligacao;
+            }
+        }
+        METRICA_INSERCAO.registrarDesde(inicio, 0, false);
+        return quantidade;
+    }
+
+    /**
+     * Pesquisa o item associado à chave, sem alterar a lista nem esperar por outras threads.
+     * @return o item associado à chave.
+     * @throws NoSuchElementException se a chave não estiver na lista.
+     */
+    @Override
+    public V pesquisar(K chave) {
+
+        NoSaltos<K, V> encontrado = procurar(chave);
+
+        if (encontrado == null)
+            throw new NoSuchElementException("O item não foi localizado na lista!");
+        return encontrado.item;
+    }
+
+    @Override
+    public boolean contem(K chave) {
+        return procurar(chave) != null;
+    }
+
+    /**
+     * Procura o nó da chave, sem alterar a lista nem esperar por outras threads, e registra a pesquisa.
+     * @return o nó da chave, ou {@code null} se ela não estiver na lista.
+     */
+    private NoSaltos<K, V> procurar(K chave) {
+
+        NoSaltos<K, V> anterior = cabeca, atual = cauda;
+        Object referencia;
+        int comparacao = 1;
+        long quantasComparacoes = 0;
+        long inicio = Metrica.iniciar();
+        boolean encontrado;
+
+        for (int nivel = nivelMaisAlto.get(); nivel >= 0; nivel--) {
+            atual = seguinte(ler(anterior, nivel));
+            while (atual != cauda) {
+                referencia = ler(atual, nivel);
+                if (referencia instanceof Marca) {
+                    atual = seguinte(referencia);
+                    continue;
+                }
+                comparacao = comparador.compare(atual.chave, chave);
+                quantasComparacoes++;
+                if (comparacao >= 0)
+                    break;
+                anterior = atual;
+                atual = seguinte(referencia);
+            }
+        }
+
+        encontrado = (atual != cauda) && (comparacao == 0);
+        ultimoTempo = METRICA_PESQUISA.registrarDesde(inicio, quantasComparacoes, encontrado);
+        ultimasComparacoes = quantasComparacoes;
+        return encontrado ? atual : null;
+    }
+
+    /**
+     * Remove o item associado à chave. O nó é marcado do nível mais alto até o nível 0; a marcação do nível 0
+     * é a que decide, entre threads que removem a mesma chave ao mesmo tempo, qual delas a removeu.
+     * @return o item removido.
+     * @throws NoSuchElementException se a chave não estiver na lista.
+     */
+    @Override
+    public V remover(K chave) {
+
+        NoSaltos<K, V>[] anteriores = novoCaminho();
+        NoSaltos<K, V>[] seguintes = novoCaminho();
+        NoSaltos<K, V> removido;
+        Object referencia;
+        long inicio = Metrica.iniciar();
+
+        while (true) {
+            if (!localizar(chave, anteriores, seguintes)) {
+                METRICA_REMOCAO.registrarDesde(inicio, 0, false);
+                throw new NoSuchElementException("O item a ser removido não foi localizado na lista!");
+            }
+
+            removido = seguintes[0];
+            for (int nivel = removido.nivel; nivel >= 1; nivel--) {
+                do {
+                    referencia = ler(removido, nivel);
+                } while (!(referencia instanceof Marca) && !trocar(removido, nivel, referencia, new Marca<>(seguinte(referencia))));
+            }
+
+            while (!((referencia = ler(removido, 0)) instanceof Marca)) {
+                if (trocar(removido, 0, referencia, new Marca<>(seguinte(referencia)))) {
+                    tamanho.decrementAndGet();
+                    /// Desliga fisicamente o nó de todos os níveis.
+                    localizar(chave, anteriores, seguintes);
+                    METRICA_REMOCAO.registrarDesde(inicio, 0, true);
+                    return removido.item;
+                }
+            }
+            /// Outra thread removeu o nó antes; a chave pode ter sido inserida de novo desde então.
+        }
+    }
+
+    @Override
+    public int tamanho() {
+        return tamanho.get();
+    }
+
+    /**
+     * Quantidade de comparações da última pesquisa concluída, por qualquer thread.
+     */
+    @Override
+    public long getComparacoes() {
+        return ultimasComparacoes;
+    }
+
+    /**
+     * Tempo, em milissegundos, da última pesquisa concluída, por qualquer thread, ou 0 se ela não foi cronometrada.
+     */
+    @Override
+    public double getTempo() {
+        return ultimoTempo / 1_000_000.0;
+    }
+
+    /**
+     * Retorna os pares chave-item cujas chaves estão no intervalo [inicio, fim), em ordem crescente de chave.
+     * O início do intervalo é localizado pelos níveis de cima, e os itens são percorridos sob demanda no nível 0,
+     * de modo que percorrer k itens custa O(log n + k) em média.
+     * @param inicio a menor chave do intervalo (inclusive), ou {@code null} para começar na menor chave da lista.
+     * @param fim a chave que encerra o intervalo (exclusive), ou {@code null} para ir até a maior chave da lista.
+     * @return um {@link Iterable} que percorre o intervalo sob demanda.
+     */
+    public Iterable<Entrada<K, V>> intervalo(K inicio, K fim) {
+        return () -> new IteradorIntervalo(inicio, fim);
+    }
+
+    /**
+     * Retorna um iterador que percorre, em ordem crescente de chave, todos os pares chave-item da lista.
+     */
+    @Override
+    public Iterator<Entrada<K, V>> iterator() {
+        return new IteradorIntervalo(null, null);
+    }
+
+    /**
+     * Iterador do nível 0, que salta os nós marcados para remoção.
+     */
+    private class IteradorIntervalo implements Iterator<Entrada<K, V>> {
+
+        private final K fim;
+        private NoSaltos<K, V> proximo;
+
+        private IteradorIntervalo(K inicio, K fim) {
+
+            NoSaltos<K, V> anterior = cabeca, atual;
+
+            this.fim = fim;
+            if (inicio != null) {
+                /// Desce pelos níveis até o último nó com chave menor do que o início do intervalo.
+                for (int nivel = nivelMaisAlto.get(); nivel >= 0; nivel--) {
+                    atual = seguinte(ler(anterior, nivel));
+                    while ((atual != cauda) && (comparador.compare(atual.chave, inicio) < 0)) {
+                        anterior = atual;
+                        atual = seguinte(ler(atual, nivel));
+                    }
+                }
+            }
+            proximo = avancar(seguinte(ler(anterior, 0)));
+        }
+
+        /**
+         * Retorna o primeiro nó, a partir do informado, que não esteja marcado para remoção e esteja no intervalo,
+         * ou {@code null} se não houver.
+         */
+        private NoSaltos<K, V> avancar(NoSaltos<K, V> no) {
+
+            while ((no != cauda) && (ler(no, 0) instanceof Marca))
+                no = seguinte(ler(no, 0));
+
+            if ((no == cauda) || ((fim != null) && (comparador.compare(no.chave, fim) >= 0)))
+                return null;
+            return no;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (proximo != null);
+        }
+
+        @Override
+        public Entrada<K, V> next() {
+
+            NoSaltos<K, V> atual = proximo;
+
+            if (atual == null)
+                throw new NoSuchElementException("Não há mais itens a percorrer.");
+
+            proximo = avancar(seguinte(ler(atual, 0)));
+            return new Entrada<>(atual.chave, atual.item);
+        }
+    }
+
+    /**
+     * Escreve no destino os itens da lista, um por linha, em ordem crescente de chave.
+     * @param destino onde os itens serão escritos.
+     * @throws IllegalStateException se a lista estiver vazia.
+     * @throws IOException se ocorrer um erro de escrita no destino.
+     */
+    @Override
+    public void percorrer(Appendable destino) throws IOException {
+
+        Iterator<Entrada<K, V>> itens = iterator();
+
+        if (!itens.hasNext())
+            throw new IllegalStateException("A lista está vazia!");
+
+        while (itens.hasNext())
+            destino.append(String.valueOf(itens.next().getValor())).append("\n");
+    }
+
+    @Override
+    public String toString() {
+        return percorrer();
+    }
+}
@@ -0,0 +1,453 @@
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Lista duplamente encadeada com um índice hash das células pela chave inteira de cada item
+ * (por exemplo, o identificador de um pedido), com as mesmas operações e mensagens de erro de {@link Lista}.
+ *
+ * A ordem de inserção é mantida, mas a pesquisa, a remoção de um item e a verificação de pertinência
+ * localizam a célula pelo índice, em tempo O(1) esperado, em vez de percorrer a lista.
+ * Itens com a mesma chave são considerados iguais: como em {@link Lista}, a pesquisa e a remoção
+ * encontram a primeira ocorrência, na ordem da lista.
+ *
+ * O índice é encadeado pelas próprias células (cada célula aponta a seguinte do seu balde), sem outros
+ * objetos por item. Dentro de um balde, as células de uma mesma chave ficam na ordem da lista.
+ */
+public class ListaIndexada<E> implements ILista<E> {
+
+	private static final Metrica METRICA_PESQUISA = RegistroMetricas.metrica("ListaIndexada", "pesquisar");
+
+	/** Quantidade inicial de baldes do índice (potência de 2). */
+	private static final int BALDES_INICIAIS = 8;
+
+	/** Constante multiplicativa do hashing de Fibonacci: 2^32 dividido pela razão áurea. */
+	private static final int FIBONACCI = 0x9E3779B9;
+
+	private static final class CelulaDupla<E> {
+
+		private final E item;
+		private final int chave;
+		private CelulaDupla<E> anterior;
+		private CelulaDupla<E> proximo;
+		private CelulaDupla<E> proximoNoBalde;
+
+		private CelulaDupla(E item, int chave) {
+			this.item = item;
+			this.chave = chave;
+		}
+	}
+
+	private final ToIntFunction<? super E> extratorChave;
+
+	/** Sentinela da lista circular: o seu próximo é o primeiro item e o seu anterior, o último. */
+	private final CelulaDupla<E> sentinela;
+	private CelulaDupla<E>[] baldes;
+	private int deslocamento;
+	private int tamanho;
+	private long comparacoes;
+	private long duracao;
+
+	/**
+	 * Construtor da classe.
+	 * @param extratorChave a função que extrai a chave de cada item, como {@code Pedido::getIdPedido}.
+	 */
+	public ListaIndexada(ToIntFunction<? super E> extratorChave) {
+
+		if (extratorChave == null)
+			throw new IllegalArgumentException("A função extratora da chave não pode ser nula!");
+
+		this.extratorChave = extratorChave;
+		this.sentinela = new CelulaDupla<>(null, 0);
+		this.sentinela.anterior = this.sentinela.proximo = this.sentinela;
+		alocarBaldes(BALDES_INICIAIS);
+		this.tamanho = 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void alocarBaldes(int quantidade) {
+
+		baldes = new CelulaDupla[quantidade];
+		deslocamento = Integer.numberOfLeadingZeros(quantidade) + 1;
+	}
+
+	private int balde(int chave) {
+		return (chave * FIBONACCI) >>> deslocamento;
+	}
+
+	/**
+	 * Dobra a quantidade de baldes quando a lista tem mais itens do que 3/4 dos baldes.
+	 * As células são reindexadas da última para a primeira, cada uma no início do seu balde, o que mantém
+	 * as células de uma mesma chave na ordem da lista.
+	 */
+	private void verificarCarga() {
+
+		if (this.tamanho <= (baldes.length >> 2) * 3)
+			return;
+
+		alocarBaldes(baldes.length * 2);
+		for (CelulaDupla<E> aux = sentinela.anterior; aux != sentinela; aux = aux.anterior) {
+			int b = balde(aux.chave);
+			aux.proximoNoBalde = baldes[b];
+			baldes[b] = aux;
+		}
+	}
+
+	/**
+	 * Retorna a primeira célula da lista com a chave informada, ou {@code null} se não houver nenhuma.
+	 */
+	private CelulaDupla<E> localizar(int chave) {
+
+		CelulaDupla<E> aux = baldes[balde(chave)];
+
+		while ((aux != null) && (aux.chave != chave))
+			aux = aux.proximoNoBalde;
+		return aux;
+	}
+
+	/**
+	 * Pesquisa a primeira célula da lista com a chave do elemento procurado e registra a pesquisa.
+	 * As comparações são contadas numa variável local, e não no campo, para que pesquisas simultâneas
+	 * não misturem seus números; o campo recebe o total só no final.
+	 * @return a célula encontrada, ou {@code null} se não houver nenhuma com a chave.
+	 */
+	private CelulaDupla<E> procurar(E procurado) {
+
+		int chave = extratorChave.applyAsInt(procurado);
+		long inicioPesquisa = Metrica.iniciar();
+		long quantasComparacoes = 1;
+		CelulaDupla<E> aux = baldes[balde(chave)];
+
+		while ((aux != null) && (aux.chave != chave)) {
+			quantasComparacoes++;
+			aux = aux.proximoNoBalde;
+		}
+
+		duracao = METRICA_PESQUISA.registrarDesde(inicioPesquisa, quantasComparacoes, aux != null);
+		comparacoes = quantasComparacoes;
+		return aux;
+	}
+
+	/**
+	 * Indexa a nova célula, que deve vir, na lista, logo depois de todas as células da sua chave:
+	 * ela é colocada no final do seu balde.
+	 */
+	private void indexarNoFinal(CelulaDupla<E> nova) {
+
+		int b = balde(nova.chave);
+		CelulaDupla<E> aux = baldes[b];
+
+		if (aux == null) {
+			baldes[b] = nova;
+			return;
+		}
+		while (aux.proximoNoBalde != null)
+			aux = aux.proximoNoBalde;
+		aux.proximoNoBalde = nova;
+	}
+
+	/**
+	 * Indexa a nova célula logo depois da célula informada, que tem a mesma chave e é a última dessa chave
+	 * antes da nova na lista; ou no início do balde, se a nova for a primeira da sua chave na lista.
+	 */
+	private void indexarDepoisDe(CelulaDupla<E> nova, CelulaDupla<E> anteriorMesmaChave) {
+
+		int b;
+
+		if (anteriorMesmaChave != null) {
+			nova.proximoNoBalde = anteriorMesmaChave.proximoNoBalde;
+			anteriorMesmaChave.proximoNoBalde = nova;
+		} else {
+			b = balde(nova.chave);
+			nova.proximoNoBalde = baldes[b];
+			baldes[b] = nova;
+		}
+	}
+
+	private void desindexar(CelulaDupla<E> celula) {
+
+		int b = balde(celula.chave);
+		CelulaDupla<E> aux = baldes[b];
+
+		if (aux == celula) {
+			baldes[b] = celula.proximoNoBalde;
+		} else {
+			while (aux.proximoNoBalde != celula)
+				aux = aux.proximoNoBalde;
+			aux.proximoNoBalde = celula.proximoNoBalde;
+		}
+		celula.proximoNoBalde = null;
+	}
+
+	/** Encadeia a nova célula na lista, antes da célula informada. */
+	private void encadearAntesDe(CelulaDupla<E> nova, CelulaDupla<E> proxima) {
+
+		nova.anterior = proxima.anterior;
+		nova.proximo = proxima;
+		proxima.anterior.proximo = nova;
+		proxima.anterior = nova;
+		this.tamanho++;
+	}
+
+	private E removerCelula(CelulaDupla<E> celula) {
+
+		desindexar(celula);
+		celula.anterior.proximo = celula.proximo;
+		celula.proximo.anterior = celula.anterior;
+		celula.anterior = celula.proximo = null;
+		this.tamanho--;
+
+		return celula.item;
+	}
+
+	/** Retorna a célula da posição, percorrendo a lista a partir da extremidade mais próxima. */
+	private CelulaDupla<E> celula(int posicao) {
+
+		CelulaDupla<E> aux;
+
+		if (posicao < (this.tamanho >> 1)) {
+			aux = sentinela.proximo;
+			for (int i = 0; i < posicao; i++)
+				aux = aux.proximo;
+		} else {
+			aux = sentinela.anterior;
+			for (int i = this.tamanho - 1; i > posicao; i--)
+				aux = aux.anterior;
+		}
+		return aux;
+	}
+
+	@Override
+	public boolean vazia() {
+
+		return (this.tamanho == 0);
+	}
+
+	@Override
+	public void inserir(E novo, int posicao) {
+
+		CelulaDupla<E> novaCelula, proxima, anteriorMesmaChave = null;
+
+		if ((posicao < 0) || (posicao > this.tamanho))
+			throw new IndexOutOfBoundsException("Não foi possível inserir o item na lista: "
+					+ "a posição informada é inválida!");
+
+		if (posicao == this.tamanho) {  // inserção na última posição: não é preciso percorrer a lista
+			inserirFinal(novo);
+			return;
+		}
+
+		novaCelula = new CelulaDupla<>(novo, extratorChave.applyAsInt(novo));
+
+		/// Percorre a lista até a posição guardando a última célula com a mesma chave,
+		/// depois da qual a nova célula deve ficar no seu balde.
+		proxima = sentinela.proximo;
+		for (int i = 0; i < posicao; i++) {
+			if (proxima.chave == novaCelula.chave)
+				anteriorMesmaChave = proxima;
+			proxima = proxima.proximo;
+		}
+
+		encadearAntesDe(novaCelula, proxima);
+		indexarDepoisDe(novaCelula, anteriorMesmaChave);
+		verificarCarga();
+	}
+
+	@Override
+	public void inserirFinal(E novo) {
+
+		CelulaDupla<E> novaCelula = new CelulaDupla<>(novo, extratorChave.applyAsInt(novo));
+
+		encadearAntesDe(novaCelula, sentinela);
+		indexarNoFinal(novaCelula);
+		verificarCarga();
+	}
+
+	/**
+	 * Move todos os itens da outra lista para o final desta, sem criar células.
+	 * As células movidas são indexadas nesta lista, em tempo proporcional à quantidade de itens da outra.
+	 * As duas listas devem usar a mesma função extratora da chave.
+	 * Ao final da operação, a outra lista fica vazia.
+	 * @param outra a lista cujos itens serão movidos para o final desta.
+	 */
+	public void concatenar(ListaIndexada<E> outra) {
+
+		CelulaDupla<E> aux, proxima;
+
+		if (outra == this)
+			throw new IllegalArgumentException("Não é possível concatenar uma lista a ela mesma!");
+
+		aux = outra.sentinela.proximo;
+		while (aux != outra.sentinela) {
+			proxima = aux.proximo;
+			aux.proximoNoBalde = null;
+			encadearAntesDe(aux, sentinela);
+			indexarNoFinal(aux);
+			verificarCarga();
+			aux = proxima;
+		}
+
+		outra.sentinela.anterior = outra.sentinela.proximo = outra.sentinela;
+		outra.alocarBaldes(BALDES_INICIAIS);
+		outra.tamanho = 0;
+	}
+
+	@Override
+	public E obter(int posicao) {
+
+		if ((posicao < 0) || (posicao >= this.tamanho))
+			throw new IndexOutOfBoundsException("Não foi possível obter o item da lista: "
+					+ "a posição informada é inválida!");
+
+		return celula(posicao).item;
+	}
+
+	@Override
+	public E remover(int posicao) {
+
+		if (vazia())
+			throw new IllegalStateException("Não foi possível remover o item da lista: "
+					+ "a lista está vazia!");
+
+		if ((posicao < 0) || (posicao >= this.tamanho))
+			throw new IndexOutOfBoundsException("Não foi possível remover o item da lista: "
+					+ "a posição informada é inválida!");
+
+		return removerCelula(celula(posicao));
+	}
+
+	/**
+	 * Remove a primeira ocorrência, na ordem da lista, do item com a mesma chave do elemento informado,
+	 * localizando-a pelo índice.
+	 */
+	@Override
+	public E remover(E elemento) {
+
+		CelulaDupla<E> celula;
+
+		if (vazia())
+			throw new IllegalStateException("Não foi possível remover o item da lista: "
+					+ "a lista está vazia!");
+
+		celula = localizar(extratorChave.applyAsInt(elemento));
+		if (celula == null)
+			throw new NoSuchElementException("Item não encontrado!");
+
+		return removerCelula(celula);
+	}
+
+	/**
+	 * Retorna a primeira ocorrência, na ordem da lista, do item com a mesma chave do procurado,
+	 * localizando-a pelo índice.
+	 */
+	@Override
+	public E pesquisar(E procurado) {
+
+		CelulaDupla<E> celula = procurar(procurado);
+
+		if (celula == null)
+			throw new NoSuchElementException("Item não encontrado!");
+
+		return celula.item;
+	}
+
+	/**
+	 * Indica se a lista contém um item com a mesma chave do elemento informado.
+	 */
+	@Override
+	public boolean contem(E elemento) {
+		return procurar(elemento) != null;
+	}
+
+	@Override
+	public String toString() {
+		return percorrer();
+	}
+
+	@Override
+	public void percorrer(Appendable destino) throws IOException {
+
+		if (vazia()) {
+			destino.append("A lista está vazia!\n");
+			return;
+		}
+
+		for (CelulaDupla<E> aux = sentinela.proximo; aux != sentinela; aux = aux.proximo)
+			destino.append(String.valueOf(aux.item)).append("\n");
+	}
+
+	/**
+	 * Retorna um iterador que percorre os itens na ordem em que estão na lista, sem cópia dos itens.
+	 * A lista não deve ser modificada durante a iteração.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+
+		return new Iterator<E>() {
+
+			private CelulaDupla<E> atual = sentinela.proximo;
+
+			@Override
+			public boolean hasNext() {
+				return (atual != sentinela);
+			}
+
+			@Override
+			public E next() {
+
+				E item;
+
+				if (atual == sentinela)
+					throw new NoSuchElementException("Não há mais itens a percorrer.");
+
+				item = atual.item;
+				atual = atual.proximo;
+				return item;
+			}
+		};
+	}
+
+	@Override
+	public int contarRepeticoes(Predicate<E> condicional) {
+
+		int repeticoes = 0;
+
+		for (CelulaDupla<E> aux = sentinela.proximo; aux != sentinela; aux = aux.proximo) {
+			if (condicional.test(aux.item))
+				repeticoes++;
+		}
+		return repeticoes;
+	}
+
+	@Override
+	public double calcularValorTotal(Function<E, Double> extrator) {
+
+		double soma = 0;
+
+		if (vazia())
+			throw new IllegalStateException("A lista está vazia!");
+
+		for (CelulaDupla<E> aux = sentinela.proximo; aux != sentinela; aux = aux.proximo)
+			soma += extrator.apply(aux.item);
+
+		return soma;
+	}
+
+	@Override
+	public int tamanho() {
+		return tamanho;
+	}
+
+	@Override
+	public long getComparacoes() {
+		return comparacoes;
+	}
+
+	@Override
+	public double getTempo() {
+		return duracao / 1_000_000.0;
+	}
+}
@@ -0,0 +1,250 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Lista sobre um vetor redimensionável, com as mesmas operações e mensagens de erro de {@link Lista}.
+ *
+ * Os itens ficam em posições contíguas de memória: a inserção no final custa O(1) amortizado, o acesso
+ * por posição custa O(1) e os percursos não seguem referências entre células espalhadas pela memória.
+ * Inserções e remoções no meio deslocam os itens seguintes com {@link System#arraycopy}.
+ * É indicada para listas pequenas e muito percorridas, como os produtos de um pedido.
+ */
+public class ListaVetor<E> implements ILista<E> {
+
+	/** Capacidade inicial do vetor, usada pelo construtor padrão. */
+	private static final int CAPACIDADE_INICIAL = 8;
+
+	private static final Metrica METRICA_PESQUISA = RegistroMetricas.metrica("ListaVetor", "pesquisar");
+
+	private Object[] itens;
+	private int tamanho;
+	private long comparacoes;
+	private long duracao;
+
+	public ListaVetor() {
+
+		this(CAPACIDADE_INICIAL);
+	}
+
+	/**
+	 * Construtor da classe.
+	 * @param capacidade quantidade de itens que a lista comporta antes de redimensionar o vetor.
+	 */
+	public ListaVetor(int capacidade) {
+
+		if (capacidade < 0)
+			throw new IllegalArgumentException("A capacidade da lista não pode ser negativa!");
+
+		this.itens = new Object[capacidade];
+		this.tamanho = 0;
+	}
+
+	@Override
+	public boolean vazia() {
+
+		return (this.tamanho == 0);
+	}
+
+	private void garantirCapacidade(int capacidade) {
+
+		if (capacidade > itens.length)
+			itens = Arrays.copyOf(itens, Math.max(capacidade, Math.max(2 * itens.length, CAPACIDADE_INICIAL)));
+	}
+
+	@Override
+	public void inserir(E novo, int posicao) {
+
+		if ((posicao < 0) || (posicao > this.tamanho))
+			throw new IndexOutOfBoundsException("Não foi possível inserir o item na lista: "
+					+ "a posição informada é inválida!");
+
+		garantirCapacidade(this.tamanho + 1);
+		System.arraycopy(itens, posicao, itens, posicao + 1, this.tamanho - posicao);
+		itens[posicao] = novo;
+		this.tamanho++;
+	}
+
+	@Override
+	public void inserirFinal(E novo) {
+
+		garantirCapacidade(this.tamanho + 1);
+		itens[this.tamanho++] = novo;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public E obter(int posicao) {
+
+		if ((posicao < 0) || (posicao >= this.tamanho))
+			throw new IndexOutOfBoundsException("Não foi possível obter o item da lista: "
+					+ "a posição informada é inválida!");
+
+		return (E) itens[posicao];
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public E remover(int posicao) {
+
+		E removido;
+
+		if (vazia())
+			throw new IllegalStateException("Não foi possível remover o item da lista: "
+					+ "a lista está vazia!");
+
+		if ((posicao < 0) || (posicao >= this.tamanho))
+			throw new IndexOutOfBoundsException("Não foi possível remover o item da lista: "
+					+ "a posição informada é inválida!");
+
+		removido = (E) itens[posicao];
+		System.arraycopy(itens, posicao + 1, itens, posicao, this.tamanho - posicao - 1);
+		itens[--this.tamanho] = null;
+
+		return removido;
+	}
+
+	@Override
+	public E remover(E elemento) {
+
+		if (vazia())
+			throw new IllegalStateException("Não foi possível remover o item da lista: "
+					+ "a lista está vazia!");
+
+		for (int i = 0; i < this.tamanho; i++) {
+			if (itens[i].equals(elemento))
+				return remover(i);
+		}
+		throw new NoSuchElementException("Item não encontrado!");
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public E pesquisar(E procurado) {
+
+		int posicao = localizar(procurado);
+
+		if (posicao == -1)
+			throw new NoSuchElementException("Item não encontrado!");
+		return (E) itens[posicao];
+	}
+
+	@Override
+	public boolean contem(E procurado) {
+		return localizar(procurado) != -1;
+	}
+
+	/**
+	 * Localiza a posição do elemento e registra a pesquisa.
+	 * @return a posição do elemento, ou -1 se ele não estiver na lista.
+	 */
+	private int localizar(E procurado) {
+
+		long quantasComparacoes = 0;
+		long inicioPesquisa = Metrica.iniciar();
+
+		for (int i = 0; i < this.tamanho; i++) {
+			quantasComparacoes++;
+			if (itens[i].equals(procurado)) {
+				duracao = METRICA_PESQUISA.registrarDesde(inicioPesquisa, quantasComparacoes, true);
+				comparacoes = quantasComparacoes;
+				return i;
+			}
+		}
+
+		duracao = METRICA_PESQUISA.registrarDesde(inicioPesquisa, quantasComparacoes, false);
+		comparacoes = quantasComparacoes;
+		return -1;
+	}
+
+	@Override
+	public String toString() {
+		return percorrer();
+	}
+
+	@Override
+	public void percorrer(Appendable destino) throws IOException {
+
+		if (vazia()) {
+			destino.append("A lista está vazia!\n");
+			return;
+		}
+
+		for (int i = 0; i < this.tamanho; i++)
+			destino.append(String.valueOf(itens[i])).append("\n");
+	}
+
+	/**
+	 * Retorna um iterador que percorre os itens na ordem em que estão na lista, sem cópia dos itens.
+	 * A lista não deve ser modificada durante a iteração.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+
+		return new Iterator<E>() {
+
+			private int posicao = 0;
+
+			@Override
+			public boolean hasNext() {
+				return (posicao < tamanho);
+			}
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public E next() {
+
+				if (posicao >= tamanho)
+					throw new NoSuchElementException("Não há mais itens a percorrer.");
+
+				return (E) itens[posicao++];
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public int contarRepeticoes(Predicate<E> condicional) {
+
+		int repeticoes = 0;
+
+		for (int i = 0; i < this.tamanho; i++) {
+			if (condicional.test((E) itens[i]))
+				repeticoes++;
+		}
+		return repeticoes;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public double calcularValorTotal(Function<E, Double> extrator) {
+
+		double soma = 0;
+
+		if (vazia())
+			throw new IllegalStateException("A lista está vazia!");
+
+		for (int i = 0; i < this.tamanho; i++)
+			soma += extrator.apply((E) itens[i]);
+
+		return soma;
+	}
+
+	@Override
+	public int tamanho() {
+		return tamanho;
+	}
+
+	@Override
+	public long getComparacoes() {
+		return comparacoes;
+	}
+
+	@Override
+	public double getTempo() {
+		return duracao / 1_000_000.0;
+	}
+}
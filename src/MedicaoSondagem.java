@@ -0,0 +1,142 @@
+/**
+ * Medição das operações de uma tabela hash de endereçamento aberto.
+ * Guarda os números da última operação (expostos por {@link IMedicao}) e acumula, para todas as operações,
+ * a quantidade de operações, de sondagens e de colisões, além de histogramas do comprimento das sequências
+ * de sondagem e do tempo gasto. Como em {@link Metrica}, só uma amostra das operações, sorteada em
+ * {@link #iniciar()}, lê o relógio e entra nos histogramas; nas demais, o tempo da operação é 0.
+ * Com as métricas desabilitadas ({@link RegistroMetricas#habilitar(boolean)}), nenhuma operação é cronometrada
+ * nem acumulada; as sondagens da última operação e as colisões continuam sendo contadas.
+ */
+public class MedicaoSondagem implements IMedicao {
+
+	/** Histograma das medições que não acumulam números; nunca recebe registros. */
+	private static final Histograma SEM_REGISTROS = new Histograma();
+
+	private final boolean acumular;
+	private long sondagens;
+	private long inicio;
+	private long termino;
+	private long colisoes;
+	private long operacoes;
+	private long somaSondagens;
+	private long maiorSondagem;
+	private final Histograma histogramaSondagens;
+	private final Histograma histogramaTempo;
+
+	public MedicaoSondagem() {
+		this(true);
+	}
+
+	/**
+	 * Construtor da classe.
+	 * @param acumular falso para guardar apenas os números da última operação, sem alocar os histogramas
+	 * (cerca de 15 KB), como convém às tabelas auxiliares, de vida curta, cujos números ninguém lê.
+	 */
+	MedicaoSondagem(boolean acumular) {
+		this.acumular = acumular;
+		histogramaSondagens = acumular ? new Histograma() : SEM_REGISTROS;
+		histogramaTempo = acumular ? new Histograma() : SEM_REGISTROS;
+	}
+
+	/**
+	 * Marca o início de uma operação sobre a tabela e sorteia se ela será cronometrada.
+	 */
+	public void iniciar() {
+		sondagens = 0;
+		inicio = Metrica.iniciar();
+	}
+
+	/**
+	 * Contabiliza o exame de uma posição da tabela.
+	 * @param colisao verdadeiro se a posição estava ocupada por outra chave.
+	 */
+	public void sondar(boolean colisao) {
+		sondagens++;
+		if (colisao)
+			colisoes++;
+	}
+
+	/**
+	 * Marca o término da operação iniciada em {@link #iniciar()} e acumula seus números.
+	 */
+	public void encerrar() {
+		if (inicio != Metrica.SEM_MEDICAO) {
+			operacoes++;
+			somaSondagens += sondagens;
+			if (sondagens > maiorSondagem)
+				maiorSondagem = sondagens;
+		}
+		if (!Metrica.cronometrada(inicio)) {
+			termino = inicio;
+			return;
+		}
+		termino = System.nanoTime();
+		if (acumular) {
+			histogramaSondagens.registrar(sondagens);
+			histogramaTempo.registrar(termino - inicio);
+		}
+	}
+
+	/**
+	 * Marca o término de uma operação iniciada em {@link #iniciar()}, acumula seus números e os registra
+	 * também na métrica da operação na estrutura.
+	 * @param metrica a métrica da operação (pesquisa, inserção ou remoção) na estrutura.
+	 * @param encontrada verdadeiro se a chave já estava presente na estrutura.
+	 */
+	public void encerrar(Metrica metrica, boolean encontrada) {
+		encerrar();
+		metrica.registrar(inicio, sondagens, termino - inicio, encontrada);
+	}
+
+	@Override
+	public long getComparacoes() {
+		return sondagens;
+	}
+
+	@Override
+	public double getTempo() {
+		return (termino - inicio) / 1_000_000.0;
+	}
+
+	public long getOperacoes() {
+		return operacoes;
+	}
+
+	public long getColisoes() {
+		return colisoes;
+	}
+
+	public long getMaiorSondagem() {
+		return maiorSondagem;
+	}
+
+	public double getMediaSondagens() {
+		return (operacoes == 0) ? 0 : (double) somaSondagens / operacoes;
+	}
+
+	/** Histograma da quantidade de posições examinadas por operação cronometrada. */
+	public Histograma getHistogramaSondagens() {
+		return histogramaSondagens;
+	}
+
+	/** Histograma do tempo, em nanossegundos, de cada operação cronometrada. */
+	public Histograma getHistogramaTempo() {
+		return histogramaTempo;
+	}
+
+	public void limpar() {
+		operacoes = 0;
+		somaSondagens = 0;
+		maiorSondagem = 0;
+		colisoes = 0;
+		histogramaSondagens.limpar();
+		histogramaTempo.limpar();
+	}
+
+	@Override
+	public String toString() {
+		return "Operações: " + getOperacoes() + ", colisões: " + colisoes + "\n"
+				+ "Sondagens: " + histogramaSondagens + "\n"
+				+ "Tempo (ns): " + histogramaTempo;
+	}
+}
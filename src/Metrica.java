@@ -0,0 +1,185 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Números acumulados de uma operação de uma estrutura (por exemplo, as pesquisas das {@link AVL}), somando as
+ * chamadas de todas as instâncias e de todas as threads: quantas encontraram ou não a chave, quantas
+ * comparações fizeram e um histograma do tempo de cada chamada.
+ *
+ * As métricas são obtidas de {@link RegistroMetricas#metrica(String, String)}, e o registro de uma chamada
+ * não bloqueia nem disputa contadores entre threads. As chamadas e as comparações são todas contadas, mas só
+ * uma amostra das chamadas, sorteada em {@link #iniciar()}, é cronometrada: as demais não leem o relógio, que
+ * custa mais do que uma pesquisa numa estrutura pequena.
+ *
+ * Uma estrutura mede uma chamada com {@link #iniciar()}, no começo, e {@link #registrarDesde(long, long, boolean)},
+ * no fim. Com as métricas desabilitadas, nada é contado.
+ */
+public class Metrica {
+
+    /** Início retornado por {@link #iniciar()} quando as métricas estão desabilitadas: a chamada não é medida. */
+    public static final long SEM_MEDICAO = Long.MIN_VALUE;
+
+    /** Início retornado por {@link #iniciar()} para as chamadas fora da amostra: a chamada é contada, mas não cronometrada. */
+    public static final long SEM_TEMPO = Long.MIN_VALUE + 1;
+
+    /** Uma em cada {@code AMOSTRAGEM} chamadas, em média, é cronometrada (potência de 2). */
+    static final int AMOSTRAGEM = 64;
+
+    /** Contadores avulsos mantidos, por thread, junto com o histograma dos tempos. */
+    private static final int ENCONTRADAS = 0;
+    private static final int NAO_ENCONTRADAS = 1;
+    private static final int COMPARACOES = 2;
+
+    private final String estrutura;
+    private final String operacao;
+    private final HistogramaConcorrente tempos;
+
+    Metrica(String estrutura, String operacao) {
+        this.estrutura = estrutura;
+        this.operacao = operacao;
+        this.tempos = new HistogramaConcorrente(COMPARACOES + 1);
+    }
+
+    /**
+     * Marca o início de uma chamada, a ser registrada por {@link #registrarDesde(long, long, boolean)}, e sorteia
+     * se ela será cronometrada. Só as chamadas sorteadas leem o relógio.
+     * @return o instante atual, em nanossegundos, se a chamada foi sorteada; {@link #SEM_TEMPO} se não foi;
+     * ou {@link #SEM_MEDICAO} se as métricas estiverem desabilitadas.
+     */
+    public static long iniciar() {
+        if (!RegistroMetricas.habilitado())
+            return SEM_MEDICAO;
+        if ((ThreadLocalRandom.current().nextInt() & (AMOSTRAGEM - 1)) != 0)
+            return SEM_TEMPO;
+        return System.nanoTime();
+    }
+
+    /**
+     * Indica se uma chamada iniciada em {@link #iniciar()} foi sorteada para ser cronometrada.
+     * @param inicio o valor retornado por {@link #iniciar()}.
+     */
+    public static boolean cronometrada(long inicio) {
+        return (inicio != SEM_MEDICAO) && (inicio != SEM_TEMPO);
+    }
+
+    /**
+     * Registra uma chamada iniciada em {@link #iniciar()}.
+     * @param inicio o valor retornado por {@link #iniciar()} no começo da chamada.
+     * @param quantasComparacoes a quantidade de comparações (ou sondagens) feitas na chamada, ou 0 se a operação não as conta.
+     * @param encontrada verdadeiro se a chave foi encontrada (numa inserção, se ela já estava na estrutura).
+     * @return o tempo da chamada, em nanossegundos, ou 0 se ela não foi cronometrada.
+     */
+    public long registrarDesde(long inicio, long quantasComparacoes, boolean encontrada) {
+
+        long nanossegundos;
+
+        if (inicio == SEM_MEDICAO)
+            return 0;
+
+        contar(quantasComparacoes, encontrada);
+        if (inicio == SEM_TEMPO)
+            return 0;
+
+        nanossegundos = System.nanoTime() - inicio;
+        tempos.registrar(nanossegundos);
+        return nanossegundos;
+    }
+
+    /**
+     * Registra uma chamada da operação iniciada em {@link #iniciar()} e cronometrada pela própria estrutura.
+     * @param inicio o valor retornado por {@link #iniciar()} no começo da chamada.
+     * @param quantasComparacoes a quantidade de comparações (ou sondagens) feitas na chamada.
+     * @param nanossegundos o tempo da chamada, em nanossegundos; ignorado se ela não foi cronometrada.
+     * @param encontrada verdadeiro se a chave foi encontrada (numa inserção, se ela já estava na estrutura).
+     */
+    public void registrar(long inicio, long quantasComparacoes, long nanossegundos, boolean encontrada) {
+
+        if (inicio == SEM_MEDICAO)
+            return;
+
+        contar(quantasComparacoes, encontrada);
+        if (inicio != SEM_TEMPO)
+            tempos.registrar(nanossegundos);
+    }
+
+    private void contar(long quantasComparacoes, boolean encontrada) {
+        tempos.contar(encontrada ? ENCONTRADAS : NAO_ENCONTRADAS, 1);
+        if (quantasComparacoes != 0)
+            tempos.contar(COMPARACOES, quantasComparacoes);
+    }
+
+    public String getEstrutura() {
+        return estrutura;
+    }
+
+    public String getOperacao() {
+        return operacao;
+    }
+
+    /**
+     * Retorna os números acumulados até o momento.
+     */
+    public Instantaneo ler() {
+        return new Instantaneo(this);
+    }
+
+    /**
+     * Números de uma métrica em um dado momento. Não muda com os registros posteriores.
+     */
+    public static final class Instantaneo {
+
+        private final String estrutura;
+        private final String operacao;
+        private final long encontradas;
+        private final long naoEncontradas;
+        private final long comparacoes;
+        private final Histograma tempos;
+
+        private Instantaneo(Metrica metrica) {
+            long[] contadores = metrica.tempos.lerContadores();
+
+            this.estrutura = metrica.estrutura;
+            this.operacao = metrica.operacao;
+            this.encontradas = contadores[ENCONTRADAS];
+            this.naoEncontradas = contadores[NAO_ENCONTRADAS];
+            this.comparacoes = contadores[COMPARACOES];
+            this.tempos = metrica.tempos.ler();
+        }
+
+        public String getEstrutura() {
+            return estrutura;
+        }
+
+        public String getOperacao() {
+            return operacao;
+        }
+
+        public long getChamadas() {
+            return encontradas + naoEncontradas;
+        }
+
+        public long getEncontradas() {
+            return encontradas;
+        }
+
+        public long getNaoEncontradas() {
+            return naoEncontradas;
+        }
+
+        public double getMediaComparacoes() {
+            return (getChamadas() == 0) ? 0 : (double) comparacoes / getChamadas();
+        }
+
+        /** Histograma do tempo, em nanossegundos, das chamadas cronometradas (uma em cada {@link Metrica#AMOSTRAGEM}, em média). */
+        public Histograma getTempos() {
+            return tempos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s.%s: chamadas=%d encontradas=%d não encontradas=%d comparações (média)=%.2f%n"
+                    + "  tempo (ns, 1 em %d chamadas): %s",
+                    estrutura, operacao, getChamadas(), encontradas, naoEncontradas, getMediaComparacoes(), AMOSTRAGEM,
+                    (tempos.getQuantidade() == 0) ? "nenhuma chamada amostrada" : tempos);
+        }
+    }
+}
@@ -1,20 +1,37 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 public class Pedido implements Comparable<Pedido>{
 
-	private static int ultimoID = 1;
+	private static final AtomicInteger ultimoID = new AtomicInteger(1);
 	
 	private int idPedido;
 	
 	/** Porcentagem de desconto para pagamentos à vista */
 	private static final double DESCONTO_PG_A_VISTA = 0.15;
 	
+	/** Formato das datas dos pedidos */
+	private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+	
+	/** Formatador de valores com 2 casas decimais de cada thread, equivalente a String.format("%.2f") */
+	private static final ThreadLocal<NumberFormat> FORMATO_DECIMAL = ThreadLocal.withInitial(() -> {
+		NumberFormat formato = NumberFormat.getNumberInstance();
+		formato.setMinimumFractionDigits(2);
+		formato.setMaximumFractionDigits(2);
+		formato.setGroupingUsed(false);
+		formato.setRoundingMode(RoundingMode.HALF_UP);
+		return formato;
+	});
+	
 	/** Lista de produtos do pedido */
-	private Lista<Produto> produtos;
+	private ILista<Produto> produtos;
 	
 	/** Data de criação do pedido */
 	private LocalDate dataPedido;
@@ -25,19 +42,59 @@ public class Pedido implements Comparable<Pedido>{
 	/** Indica a forma de pagamento do pedido sendo: 1, pagamento à vista; 2, pagamento parcelado */
 	private int formaDePagamento;
 	
+	/** Quantidade de produtos do pedido cujo valor de venda depende da data (perecíveis) */
+	private int quantProdutosDependentesDaData = 0;
+	
+	/** Soma dos valores de venda dos produtos, na ordem do pedido, mantida a cada inclusão */
+	private double somaValoresDeVenda = 0.0;
+	
+	/** Dia em que a soma dos valores de venda foi calculada, se o pedido tiver produtos perecíveis */
+	private LocalDate diaDaSoma = null;
+	
+	/** Valor final já arredondado, ou NaN se precisar ser recalculado */
+	private double valorFinalCalculado = Double.NaN;
+	
 	/** Construtor do pedido.
 	 *  Deve criar a lista de produtos do pedido, 
 	 *  armazenar a data, o código identificador e a forma de pagamento informados para o pedido. 
 	 */  
 	public Pedido(LocalDate dataPedido, int formaDePagamento) {
 		
-		idPedido = ultimoID++;
-		produtos = new Lista<Produto>();
+		this(ultimoID.getAndIncrement(), dataPedido, formaDePagamento);
+	}
+	
+	/** Construtor do pedido com identificador previamente reservado por {@link #reservarIdentificadores(int)}.
+	 *  Permite que pedidos gerados em paralelo recebam identificadores que não dependem da ordem de execução das threads.
+	 */
+	public Pedido(int idPedido, LocalDate dataPedido, int formaDePagamento) {
+		
+		this.idPedido = idPedido;
+		produtos = new ListaVetor<Produto>();
 		quantProdutos = 0;
 		this.dataPedido = dataPedido;
 		this.formaDePagamento = formaDePagamento;
 	}
 	
+	/**
+	 * Reserva uma faixa contígua de identificadores de pedidos, que não serão usados por nenhum outro pedido.
+	 * @param quantidade Quantidade de identificadores a reservar
+	 * @return O primeiro identificador da faixa reservada
+	 */
+	public static int reservarIdentificadores(int quantidade) {
+		
+		return ultimoID.getAndAdd(quantidade);
+	}
+	
+	/**
+	 * Registra um identificador usado por um pedido recriado (por exemplo, a partir de um {@link InstantaneoCatalogo}),
+	 * de modo que os próximos identificadores sejam sempre posteriores a ele.
+	 * @param idPedido Identificador já usado por um pedido
+	 */
+	public static void registrarIdentificador(int idPedido) {
+		
+		ultimoID.accumulateAndGet(idPedido + 1, Math::max);
+	}
+	
 	/**
      * Inclui um produto neste pedido e aumenta a quantidade de produtos armazenados no pedido até o momento.
      * @param novo O produto a ser incluído no pedido
@@ -48,19 +105,57 @@ public class Pedido implements Comparable<Pedido>{
 		if (novo == null) {
 			return false;
 		}
-		produtos.inserir(novo, quantProdutos);
+		produtos.inserirFinal(novo);
 		quantProdutos++;
+		
+		if (novo.precoDependeDaData()) {
+			quantProdutosDependentesDaData++;
+		}
+		if (quantProdutosDependentesDaData == 0) {
+			somaValoresDeVenda += novo.valorDeVenda();
+		} else {
+			/// Com perecíveis, a soma só é refeita quando o valor do pedido for consultado.
+			diaDaSoma = null;
+		}
+		valorFinalCalculado = Double.NaN;
 		return true;
 	}
 	
 	/**
      * Calcula e retorna o valor final do pedido (soma do valor de venda de todos os produtos do pedido).
      * Caso a forma de pagamento do pedido seja à vista, aplica o desconto correspondente.
+     * O valor é mantido entre as chamadas: a soma dos produtos não perecíveis é acumulada a cada inclusão,
+     * e só é refeita, uma vez por dia, se o pedido tiver produtos perecíveis, cujo desconto depende da data.
      * @return Valor final do pedido (double)
      */
 	public double valorFinal() {
 		
-		double valorPedido = produtos.calcularValorTotal((produto -> produto.valorDeVenda()));
+		LocalDate hoje;
+		
+		if (quantProdutos == 0)
+			throw new IllegalStateException("A lista está vazia!");
+		
+		if (quantProdutosDependentesDaData > 0) {
+			hoje = DiaComercial.hoje();
+			if (!hoje.equals(diaDaSoma)) {
+				/// A soma é refeita na ordem dos produtos, como seria feita a cada chamada.
+				somaValoresDeVenda = produtos.calcularValorTotal((produto -> produto.valorDeVenda()));
+				diaDaSoma = hoje;
+				valorFinalCalculado = Double.NaN;
+			}
+		}
+		
+		if (Double.isNaN(valorFinalCalculado))
+			valorFinalCalculado = arredondarValorFinal(somaValoresDeVenda);
+		
+		return valorFinalCalculado;
+	}
+	
+	/**
+	 * Aplica o desconto da forma de pagamento à soma dos valores de venda e arredonda o resultado para 2 casas decimais.
+	 */
+	private double arredondarValorFinal(double valorPedido) {
+		
 		BigDecimal valorPedidoBD;
 		
 		if (formaDePagamento == 1) {
@@ -97,25 +192,44 @@ public class Pedido implements Comparable<Pedido>{
 		
 		StringBuilder stringPedido = new StringBuilder();
 		
-		stringPedido.append(String.format("Número do pedido: %02d\n", idPedido));
+		try {
+			escrever(stringPedido);
+		} catch (IOException excecao) {
+			throw new UncheckedIOException(excecao);
+		}
+		return stringPedido.toString();
+	}
+	
+	/**
+	 * Escreve no destino a representação do pedido descrita em {@link #toString()}, parte a parte,
+	 * com os formatadores de data e de números compartilhados, sem montar a String do pedido.
+	 * @param destino onde o pedido será escrito (um {@link StringBuilder}, um {@link java.io.Writer}...).
+	 * @throws IOException se ocorrer um erro de escrita no destino.
+	 */
+	public void escrever(Appendable destino) throws IOException {
+		
+		NumberFormat formatoDecimal = FORMATO_DECIMAL.get();
+		
+		destino.append("Número do pedido: ");
+		if ((idPedido >= 0) && (idPedido < 10)) {
+			destino.append('0');
+		}
+		destino.append(Integer.toString(idPedido)).append("\n");
 		
-		DateTimeFormatter formatoData = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-		stringPedido.append("Data do pedido: " + formatoData.format(dataPedido) + "\n");
+		destino.append("Data do pedido: ").append(FORMATO_DATA.format(dataPedido)).append("\n");
 		
-		stringPedido.append("Pedido com " + quantProdutos + " produtos.\n");
-		stringPedido.append("Produtos no pedido:\n");
-		stringPedido.append(produtos.toString());
+		destino.append("Pedido com ").append(Integer.toString(quantProdutos)).append(" produtos.\n");
+		destino.append("Produtos no pedido:\n");
+		produtos.percorrer(destino);
 		
-		stringPedido.append("Pedido pago ");
+		destino.append("Pedido pago ");
 		if (formaDePagamento == 1) {
-			stringPedido.append("à vista. Percentual de desconto: " + String.format("%.2f", DESCONTO_PG_A_VISTA * 100) + "%\n");
+			destino.append("à vista. Percentual de desconto: ").append(formatoDecimal.format(DESCONTO_PG_A_VISTA * 100)).append("%\n");
 		} else {
-			stringPedido.append("parcelado.\n");
+			destino.append("parcelado.\n");
 		}
 		
-		stringPedido.append("Valor total do pedido: R$ " + String.format("%.2f", valorFinal()) + "\n");
-		
-		return stringPedido.toString();
+		destino.append("Valor total do pedido: R$ ").append(formatoDecimal.format(valorFinal())).append("\n");
 	}
 	
     /**
@@ -137,6 +251,21 @@ public class Pedido implements Comparable<Pedido>{
     	}
     }
     
+    /**
+     * Calcula o faturamento de um conjunto de pedidos: a soma dos seus valores finais, já mantidos por cada pedido.
+     * @param pedidos Pedidos cujos valores serão somados
+     * @return Soma dos valores finais dos pedidos
+     */
+    public static double faturamento(Iterable<Pedido> pedidos) {
+    	
+    	double total = 0.0;
+    	
+    	for (Pedido pedido : pedidos) {
+    		total += pedido.valorFinal();
+    	}
+    	return total;
+    }
+    
     public LocalDate getDataPedido() {
     	return dataPedido;
     }
@@ -149,18 +278,22 @@ public class Pedido implements Comparable<Pedido>{
     	return quantProdutos;
     }
     
-    public Lista<Produto> getProdutos() {
+    public int getFormaDePagamento() {
+    	return formaDePagamento;
+    }
+    
+    public ILista<Produto> getProdutos() {
     	return produtos;
     }
     
 	/**
-	 * Conta as repetições de um produto dentro do pedido.  
-	 * @param produto Objeto "Produto" com a descrição do produto a ser contado
+	 * Conta as repetições de um produto dentro do pedido, comparando os identificadores dos produtos.
+	 * @param produto Objeto "Produto" a ser contado
 	 * @return Quantidade de repetições deste produto no pedido
 	 */
 	public int repeticoes(Produto produto){
 		
-		Predicate<Produto> condicional = (prod -> prod.descricao.equals(produto.descricao));
+		Predicate<Produto> condicional = (prod -> prod.idProduto == produto.idProduto);
 		return produtos.contarRepeticoes(condicional);
 	}
 }
\ No newline at end of file
@@ -7,6 +7,12 @@ public abstract class Produto implements Comparable<Produto>{
 	private static final double MARGEM_PADRAO = 0.2;
 	private static int ultimoID = 10_000;
 	
+	/** Formatador de moeda de cada thread: NumberFormat não é seguro para uso concorrente e sua criação é cara. */
+	private static final ThreadLocal<NumberFormat> FORMATO_MOEDA = ThreadLocal.withInitial(NumberFormat::getCurrencyInstance);
+	
+	/** Formato das datas de validade, no texto e nas descrições dos produtos. */
+	protected static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+	
 	protected int idProduto;
 	protected String descricao;
 	protected double precoCusto;
@@ -21,11 +27,25 @@ public abstract class Produto implements Comparable<Produto>{
      */
 	private void init(String desc, double precoCusto, double margemLucro) {
 		
+		init(ultimoID, desc, precoCusto, margemLucro);
+	}
+	
+	/**
+     * Inicializador privado com identificador informado. Os identificadores gerados a seguir serão
+     * sempre posteriores a ele.
+     * @param idProduto Identificador do produto
+     * @param desc Descrição do produto (mínimo de 3 caracteres)
+     * @param precoCusto Preço do produto (mínimo 0.01)
+     * @param margemLucro Margem de lucro (mínimo 0.01)
+     */
+	private void init(int idProduto, String desc, double precoCusto, double margemLucro) {
+		
 		if ((desc.length() >= 3) && (precoCusto > 0.0) && (margemLucro > 0.0)) {
 			descricao = desc;
 			this.precoCusto = precoCusto;
 			this.margemLucro = margemLucro;
-			idProduto = ultimoID++;
+			this.idProduto = idProduto;
+			ultimoID = Math.max(ultimoID, idProduto + 1);
 		} else {
 			throw new IllegalArgumentException("Valores inválidos para os dados do produto.");
 		}
@@ -42,6 +62,18 @@ public abstract class Produto implements Comparable<Produto>{
 		init(desc, precoCusto, margemLucro);
 	}
 	
+	/**
+     * Construtor com identificador informado, para recriar um produto já cadastrado (por exemplo, a partir
+     * de um {@link InstantaneoCatalogo}). Causa exceção em caso de valores inválidos para os dados do produto.
+     * @param idProduto Identificador do produto
+     * @param desc Descrição do produto (mínimo de 3 caracteres)
+     * @param precoCusto Preço do produto (mínimo 0.01)
+     * @param margemLucro Margem de lucro (mínimo 0.01)
+     */
+	protected Produto(int idProduto, String desc, double precoCusto, double margemLucro) {
+		init(idProduto, desc, precoCusto, margemLucro);
+	}
+	
 	/**
      * Construtor sem margem de lucro - fica considerado o valor padrão de margem de lucro.
      * Os valores default, em caso de erro, são:
@@ -59,6 +91,15 @@ public abstract class Produto implements Comparable<Produto>{
      */
 	public abstract double valorDeVenda();
 	
+	/**
+	 * Indica se o valor de venda do produto depende da data em que é calculado, como o dos perecíveis,
+	 * que recebem desconto perto da validade. Valores que não dependem da data podem ser guardados pelos pedidos.
+	 * @return true se o valor de venda puder mudar de um dia para outro.
+	 */
+	public boolean precoDependeDaData() {
+		return false;
+	}
+	
 	/**
      * Descrição, em string, do produto, contendo sua descrição e o valor de venda.
      *  @return String com o formato:
@@ -67,9 +108,7 @@ public abstract class Produto implements Comparable<Produto>{
     @Override
 	public String toString() {
     	
-    	NumberFormat moeda = NumberFormat.getCurrencyInstance();
-    	
-    	return String.format("ID: " + idProduto + " NOME: " + descricao + ": " + moeda.format(valorDeVenda()));
+    	return "ID: " + idProduto + " NOME: " + descricao + ": " + FORMATO_MOEDA.get().format(valorDeVenda());
     }
     
     @Override
@@ -136,8 +175,7 @@ public abstract class Produto implements Comparable<Produto>{
     	precoCusto = Double.parseDouble(dadosLinha[2].replace(",", "."));
         margemLucro = Double.parseDouble(dadosLinha[3].replace(",", "."));
         if (tipo == 2) {
-    		DateTimeFormatter formatoData = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-    		dataDeValidade = LocalDate.parse(dadosLinha[4], formatoData);
+    		dataDeValidade = LocalDate.parse(dadosLinha[4], FORMATO_DATA);
     		produto = new ProdutoPerecivel(descricao, precoCusto, margemLucro, dataDeValidade);
     	} else {
     		produto = new ProdutoNaoPerecivel(descricao, precoCusto, margemLucro);
@@ -11,6 +11,19 @@ public class ProdutoNaoPerecivel extends Produto{
 		super(desc, precoCusto, margemLucro);
 	}
 	
+	/**
+     * Construtor com identificador informado, para recriar um produto já cadastrado.
+     * Causa exceção em caso de valores inválidos para os dados do produto.
+     * @param idProduto Identificador do produto
+     * @param desc Descrição do produto (mínimo de 3 caracteres)
+     * @param precoCusto Preço de compra do produto (mínimo 0.01)
+     * @param margemLucro Margem de lucro para a venda (mínimo 0.01)
+     * @throws IllegalArgumentException em caso dos limites acima serem desrespeitados.
+     */
+	public ProdutoNaoPerecivel(int idProduto, String desc, double precoCusto, double margemLucro) {
+		super(idProduto, desc, precoCusto, margemLucro);
+	}
+	
 	/**
      * Construtor do produto com margem de lucro padrão (20%). Causa exceção em caso de valores inválidos para os dados do produto.
      * @param desc Descrição do produto (mínimo de 3 caracteres)
@@ -1,5 +1,5 @@
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 
 public class ProdutoPerecivel extends Produto{
 
@@ -12,6 +12,20 @@ public class ProdutoPerecivel extends Produto{
 	/** Data de validade do produto. Não pode ser anterior à data da criação ou venda do produto. */
 	private LocalDate dataDeValidade;
 	
+	/** Preço de venda calculado para um dia. Imutável, para ser compartilhado entre threads sem bloqueio. */
+	private static final class PrecoDoDia {
+		private final LocalDate dia;
+		private final double valor;
+		
+		private PrecoDoDia(LocalDate dia, double valor) {
+			this.dia = dia;
+			this.valor = valor;
+		}
+	}
+	
+	/** Último preço de venda calculado, válido apenas no seu dia. */
+	private volatile PrecoDoDia precoDoDia;
+	
 	/**
      * Construtor completo. 
      * Causa exceção em caso de valores inválidos para os dados do produto.
@@ -25,7 +39,27 @@ public class ProdutoPerecivel extends Produto{
 		
 		super(desc, precoCusto, margemLucro);
 		
-		if (validade.isBefore(LocalDate.now())) {
+		if (validade.isBefore(DiaComercial.hoje())) {
+			throw new IllegalArgumentException("Data de validade do produto é anterior ao dia de hoje!");
+		}
+		dataDeValidade = validade;
+	}
+	
+	/**
+     * Construtor com identificador informado, para recriar um produto já cadastrado.
+     * Causa exceção em caso de valores inválidos para os dados do produto.
+     * @param idProduto Identificador do produto
+     * @param desc Descrição do produto (mínimo de 3 caracteres)
+     * @param precoCusto Preço de compra do produto (mínimo 0.01)
+     * @param margemLucro Margem de lucro para a venda (mínimo 0.01)
+     * @param validade Data de validade do produto, que deve ser posterior à data atual.
+     * @throws IllegalArgumentException em caso dos limites acima serem desrespeitados.
+     */
+	public ProdutoPerecivel(int idProduto, String desc, double precoCusto, double margemLucro, LocalDate validade) {
+		
+		super(idProduto, desc, precoCusto, margemLucro);
+		
+		if (validade.isBefore(DiaComercial.hoje())) {
 			throw new IllegalArgumentException("Data de validade do produto é anterior ao dia de hoje!");
 		}
 		dataDeValidade = validade;
@@ -42,7 +76,7 @@ public class ProdutoPerecivel extends Produto{
 		
 		super(desc, precoCusto);
 		
-		if (validade.isBefore(LocalDate.now())) {
+		if (validade.isBefore(DiaComercial.hoje())) {
 			throw new IllegalArgumentException("Data de validade do produto é anterior ao dia de hoje!");
 		}
 		dataDeValidade = validade;
@@ -51,26 +85,47 @@ public class ProdutoPerecivel extends Produto{
 	/**
      * Retorna o valor de venda do produto, considerando seu preço de custo, margem de lucro e
      * dias de validade. Se o prazo de validade estiver a menos de 7 dias, será concedido desconto de 25%.
+     * O valor é calculado uma vez por dia comercial ({@link DiaComercial}) e reaproveitado até a virada do dia.
      * @return Valor de venda do produto (double, positivo)
      */
 	@Override
 	public double valorDeVenda() {
 		
+		LocalDate hoje = DiaComercial.hoje();
+		PrecoDoDia preco = precoDoDia;
 		double precoVenda;
 		
-		if (dataDeValidade.isBefore(LocalDate.now())) {
+		if ((preco != null) && preco.dia.equals(hoje)) {
+			return preco.valor;
+		}
+		
+		if (dataDeValidade.isBefore(hoje)) {
 			throw new IllegalArgumentException("Data de validade do produto é anterior ao dia de hoje!");
 		}
 		
 		precoVenda = (precoCusto * (1.0 + margemLucro));
-				
-		if (LocalDate.now().until(dataDeValidade).getDays() <= PRAZO_DESCONTO) {
+		
+		/// Dias corridos até a validade (Period.getDays() desconsideraria os meses e anos do intervalo).
+		if (ChronoUnit.DAYS.between(hoje, dataDeValidade) <= PRAZO_DESCONTO) {
 			precoVenda = precoVenda * (1.0 - DESCONTO);
 		}
 		
+		precoDoDia = new PrecoDoDia(hoje, precoVenda);
 		return precoVenda;
 	}
 	
+	/**
+	 * O valor de venda do perecível recebe desconto quando a validade está próxima: depende da data.
+	 */
+	@Override
+	public boolean precoDependeDaData() {
+		return true;
+	}
+	
+	public LocalDate getDataDeValidade() {
+		return dataDeValidade;
+	}
+	
 	/**
      * Descrição, em string, do produto, contendo sua descrição, o valor de venda e sua data de validade.
      *  @return String com o formato:
@@ -80,12 +135,7 @@ public class ProdutoPerecivel extends Produto{
     @Override
     public String toString(){
     	
-        DateTimeFormatter formato = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-        
-        String dados = super.toString();
-        dados += "\nVálido até " + formato.format(dataDeValidade);
-        
-        return dados;
+        return super.toString() + "\nVálido até " + FORMATO_DATA.format(dataDeValidade);
     }
     
     /**
@@ -98,8 +148,7 @@ public class ProdutoPerecivel extends Produto{
     
 		String precoCustoFormatado = String.format("%.2f", precoCusto).replaceAll(",", ".");
 		String margemLucroFormatada = String.format("%.2f", margemLucro).replaceAll(",", ".");
-		DateTimeFormatter formatoData = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-		String dataFormatada = formatoData.format(dataDeValidade);
+		String dataFormatada = FORMATO_DATA.format(dataDeValidade);
 		
 		return String.format("2;%s;%s;%s;%s", descricao, precoCustoFormatado, margemLucroFormatada, dataFormatada);
 		
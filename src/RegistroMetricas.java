@@ -0,0 +1,147 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro das métricas de todas as estruturas: uma {@link Metrica} por estrutura e operação, alimentada
+ * pelas próprias estruturas a cada chamada.
+ *
+ * Diferentemente de {@link IMedicao}, que guarda apenas os números da última chamada de uma instância,
+ * as métricas acumulam todas as chamadas, de todas as threads, e permitem observar, por exemplo, o p50 e o p99
+ * do tempo das pesquisas enquanto o sistema está em uso. Os números podem ser lidos a qualquer momento
+ * ({@link #ler()}) ou gravados periodicamente em arquivo ({@link #gravarPeriodicamente(Path, Duration)}).
+ */
+public final class RegistroMetricas {
+
+    private static final DateTimeFormatter FORMATO_MOMENTO = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    private static final ConcurrentHashMap<String, Metrica> metricas = new ConcurrentHashMap<>();
+    private static volatile boolean habilitado = true;
+
+    private RegistroMetricas() {
+    }
+
+    /**
+     * Retorna a métrica da operação da estrutura, criando-a na primeira vez em que é pedida.
+     * As estruturas devem obter suas métricas uma única vez, na criação, e não a cada chamada.
+     * @param estrutura o nome da estrutura (em geral, o nome da sua classe).
+     * @param operacao o nome da operação.
+     * @return a métrica, compartilhada por todos que a pedirem com os mesmos nomes.
+     */
+    public static Metrica metrica(String estrutura, String operacao) {
+        return metricas.computeIfAbsent(estrutura + "." + operacao, nome -> new Metrica(estrutura, operacao));
+    }
+
+    public static boolean habilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Habilita ou desabilita o registro de chamadas em todas as métricas. Os números já acumulados são mantidos.
+     * Mesmo habilitadas, só uma amostra das chamadas lê o relógio (veja {@link Metrica#iniciar()}); nas demais,
+     * e em todas com as métricas desabilitadas, o tempo da última chamada, exposto por {@link IMedicao#getTempo()},
+     * é 0. As comparações da última chamada continuam sendo contadas.
+     * @param habilitar verdadeiro para registrar as chamadas; falso para ignorá-las.
+     */
+    public static void habilitar(boolean habilitar) {
+        habilitado = habilitar;
+    }
+
+    /**
+     * Retorna os números de todas as métricas no momento, ordenados por estrutura e operação.
+     */
+    public static List<Metrica.Instantaneo> ler() {
+
+        List<Metrica.Instantaneo> leituras = new ArrayList<>(metricas.size());
+
+        for (Metrica metrica : metricas.values())
+            leituras.add(metrica.ler());
+        leituras.sort(Comparator.comparing(Metrica.Instantaneo::getEstrutura)
+                .thenComparing(Metrica.Instantaneo::getOperacao));
+        return leituras;
+    }
+
+    /**
+     * Escreve no destino os números de todas as métricas que já registraram alguma chamada, precedidos do momento da leitura.
+     * @param destino onde os números serão escritos.
+     * @throws IOException se ocorrer um erro de escrita no destino.
+     */
+    public static void gravar(Appendable destino) throws IOException {
+
+        destino.append("Métricas em ").append(LocalDateTime.now().format(FORMATO_MOMENTO)).append("\n");
+        for (Metrica.Instantaneo leitura : ler()) {
+            if (leitura.getChamadas() > 0)
+                destino.append(leitura.toString()).append("\n");
+        }
+    }
+
+    /**
+     * Grava os números de todas as métricas no arquivo, substituindo o conteúdo anterior.
+     * Os números são escritos em um arquivo temporário, que depois substitui o arquivo de destino, de modo que
+     * quem lê o arquivo nunca encontra uma gravação pela metade.
+     * @param arquivo o arquivo de destino.
+     * @throws IOException se não for possível gravar o arquivo.
+     */
+    public static void gravar(Path arquivo) throws IOException {
+
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+
+        try (BufferedWriter escritor = Files.newBufferedWriter(temporario, Charset.forName("UTF-8"))) {
+            gravar(escritor);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Grava os números de todas as métricas no arquivo a cada intervalo, em uma thread de fundo,
+     * até que a gravação seja encerrada. Ao ser encerrada, a gravação é feita uma última vez.
+     * Uma falha de gravação é informada na saída de erros e não interrompe as gravações seguintes.
+     * @param arquivo o arquivo de destino.
+     * @param intervalo o intervalo entre duas gravações.
+     * @return o objeto que encerra as gravações periódicas ao ser fechado.
+     */
+    public static Closeable gravarPeriodicamente(Path arquivo, Duration intervalo) {
+
+        ScheduledExecutorService agendador;
+
+        if (intervalo.isNegative() || intervalo.isZero())
+            throw new IllegalArgumentException("O intervalo entre as gravações deve ser positivo.");
+
+        agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "gravacao-metricas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleWithFixedDelay(() -> {
+            try {
+                gravar(arquivo);
+            } catch (IOException excecao) {
+                System.err.println("Não foi possível gravar as métricas em " + arquivo + ": " + excecao.getMessage());
+            }
+        }, intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+
+        return () -> {
+            agendador.shutdownNow();
+            try {
+                agendador.awaitTermination(intervalo.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException excecao) {
+                Thread.currentThread().interrupt();
+            }
+            gravar(arquivo);
+        };
+    }
+}
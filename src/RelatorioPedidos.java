@@ -0,0 +1,104 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.NoSuchElementException;
+
+/**
+ * Relatório de pedidos gravado em arquivo texto.
+ *
+ * Os pedidos são escritos um a um, por {@link Pedido#escrever(Appendable)}, num {@link BufferedWriter}
+ * com buffer grande: nenhum pedido, nem a lista de pedidos de um produto, é convertido por inteiro em String,
+ * e o arquivo recebe poucas chamadas de escrita, mesmo com milhões de pedidos. O uso de memória não depende
+ * da quantidade de pedidos gravados.
+ */
+public class RelatorioPedidos implements Closeable {
+
+    /** Tamanho, em caracteres, do buffer de escrita. */
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    private final Writer arquivo;
+    private int pedidosGravados;
+
+    /**
+     * Construtor da classe. Cria (ou sobrescreve) o arquivo do relatório.
+     * @param nomeArquivo nome do arquivo do relatório.
+     * @throws IOException se o arquivo não puder ser criado.
+     */
+    public RelatorioPedidos(String nomeArquivo) throws IOException {
+        arquivo = new BufferedWriter(new FileWriter(nomeArquivo, Charset.forName("UTF-8")), TAMANHO_BUFFER);
+        pedidosGravados = 0;
+    }
+
+    /**
+     * Grava os pedidos da lista, na ordem da lista, cada um seguido de uma linha em branco.
+     * @param pedidos os pedidos a serem gravados.
+     * @throws IOException se ocorrer um erro de escrita no arquivo.
+     */
+    public void gravarPedidos(ILista<Pedido> pedidos) throws IOException {
+        for (Pedido pedido : pedidos) {
+            pedido.escrever(arquivo);
+            arquivo.write('\n');
+            pedidosGravados++;
+        }
+    }
+
+    /**
+     * Grava os pedidos de um produto, no formato do relatório de um único produto.
+     * @param pedidosDoProduto os pedidos que contêm o produto.
+     * @throws IOException se ocorrer um erro de escrita no arquivo.
+     */
+    public void gravarPedidosDoProduto(ILista<Pedido> pedidosDoProduto) throws IOException {
+        gravarPedidos(pedidosDoProduto);
+        arquivo.write('\n');
+    }
+
+    /**
+     * Grava, numa única passagem pelos produtos, os pedidos de cada produto que tenha pedidos,
+     * precedidos de um cabeçalho com os dados do produto e a quantidade de pedidos.
+     * Os produtos são percorridos na ordem do seu identificador.
+     * @param produtos os produtos cadastrados, indexados pelo identificador.
+     * @param pedidosPorProduto a tabela de pedidos de cada produto.
+     * @return a quantidade de produtos com pedidos gravados.
+     * @throws IOException se ocorrer um erro de escrita no arquivo.
+     */
+    public int gravarTodosOsProdutos(ABB<Integer, Produto> produtos,
+            IMapeamento<Produto, ? extends ILista<Pedido>> pedidosPorProduto) throws IOException {
+
+        ILista<Pedido> pedidosDoProduto;
+        int produtosGravados = 0;
+
+        for (Entrada<Integer, Produto> entrada : produtos) {
+            try {
+                pedidosDoProduto = pedidosPorProduto.pesquisar(entrada.getValor());
+            } catch (NoSuchElementException semPedidos) {
+                continue;
+            }
+            arquivo.write("==============================\n");
+            arquivo.write(String.valueOf(entrada.getValor()));
+            arquivo.write("\nQuantidade de pedidos: ");
+            arquivo.write(Integer.toString(pedidosDoProduto.tamanho()));
+            arquivo.write("\n==============================\n");
+            gravarPedidosDoProduto(pedidosDoProduto);
+            produtosGravados++;
+        }
+        return produtosGravados;
+    }
+
+    /**
+     * Quantidade de pedidos gravados até o momento neste relatório.
+     */
+    public int getPedidosGravados() {
+        return pedidosGravados;
+    }
+
+    /**
+     * Descarrega o buffer no arquivo e o fecha.
+     */
+    @Override
+    public void close() throws IOException {
+        arquivo.close();
+    }
+}
@@ -1,91 +1,338 @@
+import java.io.IOException;
 import java.util.NoSuchElementException;
 
+/**
+ * Tabela hash de endereçamento aberto. A forma de sondagem é escolhida na construção ({@link Sondagem}):
+ * a sondagem linear, com redimensionamento incremental, é a padrão; a de Robin Hood é delegada a uma
+ * {@link TabelaHashRobinHood}, cujas operações são registradas nas métricas desta tabela.
+ */
 public class TabelaHash<K, V> implements IMapeamento<K, V> {
 
+    /** Formas de sondagem da tabela. */
+    public enum Sondagem {
+        /** Sondagem linear a partir de {@code hashCode() % capacidade}, com marcas de remoção. */
+        LINEAR,
+        /**
+         * Sondagem de Robin Hood, com as distâncias de sondagem guardadas, capacidade potência de 2 e mistura
+         * de bits do {@code hashCode()}: limita a maior sondagem mesmo com a tabela quase cheia.
+         */
+        ROBIN_HOOD
+    }
+
+    /** Capacidade mínima da tabela, usada também pelo construtor padrão. */
+    private static final int CAPACIDADE_MINIMA = 8;
+
+    /** Fator de carga (entradas válidas + marcas de remoção) a partir do qual a tabela é redimensionada. */
+    private static final double FATOR_CARGA = 0.75;
+
+    /** Quantidade de posições da tabela antiga migradas a cada operação de inserção ou remoção. */
+    private static final int PASSO_MIGRACAO = 8;
+
     private Entrada<K, V>[] tabela;
     private int capacidade;
     private int tamanho;
 
-    @SuppressWarnings("unchecked")
+    /** Quantidade de posições ocupadas na tabela atual, incluindo as marcas de remoção. */
+    private int ocupadas;
+
+    /**
+     * Tabela anterior ao redimensionamento. Enquanto não for {@code null}, suas entradas
+     * ainda estão sendo migradas, aos poucos, para a tabela atual.
+     */
+    private Entrada<K, V>[] tabelaAntiga;
+    private int capacidadeAntiga;
+    private int posicaoMigracao;
+
+    /** Marca de remoção: indica uma posição que já esteve ocupada, mantendo as sequências de sondagem. */
+    private final Entrada<K, V> removida = new Entrada<>(null, null);
+
+    private final MedicaoSondagem medicao;
+
+    /** Tabela à qual as operações são delegadas na sondagem de Robin Hood; {@code null} na sondagem linear. */
+    private final TabelaHashRobinHood<K, V> robinHood;
+
+    private static final Metrica METRICA_PESQUISA = RegistroMetricas.metrica("TabelaHash", "pesquisar");
+    private static final Metrica METRICA_INSERCAO = RegistroMetricas.metrica("TabelaHash", "inserir");
+    private static final Metrica METRICA_REMOCAO = RegistroMetricas.metrica("TabelaHash", "remover");
+
+    public TabelaHash() {
+        this(CAPACIDADE_MINIMA);
+    }
+
     public TabelaHash(int capacidade) {
-        this.capacidade = capacidade;
-        this.tabela = new Entrada[capacidade];
+        this(capacidade, Sondagem.LINEAR);
+    }
+
+    /**
+     * Construtor da classe.
+     * @param capacidade capacidade inicial da tabela.
+     * @param sondagem a forma de sondagem da tabela.
+     */
+    @SuppressWarnings("unchecked")
+    public TabelaHash(int capacidade, Sondagem sondagem) {
+        if (sondagem == Sondagem.ROBIN_HOOD) {
+            this.robinHood = new TabelaHashRobinHood<>(capacidade, "TabelaHash");
+            this.medicao = robinHood.getMedicao();
+            this.capacidade = 0;
+            this.tabela = null;
+        } else {
+            this.robinHood = null;
+            this.medicao = new MedicaoSondagem();
+            this.capacidade = Math.max(capacidade, CAPACIDADE_MINIMA);
+            this.tabela = new Entrada[this.capacidade];
+        }
         this.tamanho = 0;
+        this.ocupadas = 0;
+        this.tabelaAntiga = null;
     }
 
-    private int hash(K chave) {
-        return Math.abs(chave.hashCode()) % capacidade;
+    private int hash(K chave, int capacidade) {
+        return Math.abs(chave.hashCode() % capacidade);
     }
 
-    @Override
-    public int inserir(K chave, V item) {
-        int posicao = hash(chave);
-        int posInicial = posicao;
+    /**
+     * Localiza a posição da chave na tabela informada.
+     * As posições anteriores a {@code inicioValido} já foram migradas (contêm apenas marcas de remoção)
+     * e são saltadas, o que não altera o resultado da sondagem.
+     * @return a posição da chave, ou -1 se ela não estiver na tabela.
+     */
+    private int localizar(Entrada<K, V>[] tabela, int capacidade, int inicioValido, K chave) {
+        int posicao = hash(chave, capacidade);
 
-        while (tabela[posicao] != null) {
-            if (tabela[posicao].getChave().equals(chave)) {
-                tabela[posicao].setValor(item);
+        for (int sondagens = 0; sondagens < capacidade; sondagens++) {
+            if (posicao < inicioValido)
+                posicao = inicioValido;
+            if (tabela[posicao] == null) {
+                medicao.sondar(false);
+                break;
+            }
+            if (tabela[posicao] != removida && tabela[posicao].getChave().equals(chave)) {
+                medicao.sondar(false);
                 return posicao;
             }
+            medicao.sondar(tabela[posicao] != removida);
             posicao = (posicao + 1) % capacidade;
-            
-            if (posicao == posInicial) {
-                throw new IllegalStateException("Tabela Hash cheia");
-            }
+        }
+        return -1;
+    }
+
+    /**
+     * Grava a entrada na primeira posição livre (vazia ou marcada como removida) da tabela atual.
+     * A chave não pode estar presente na tabela.
+     * @return a posição em que a entrada foi gravada.
+     */
+    private int gravar(Entrada<K, V> entrada) {
+        int posicao = hash(entrada.getChave(), capacidade);
+
+        while (tabela[posicao] != null && tabela[posicao] != removida) {
+            posicao = (posicao + 1) % capacidade;
+        }
+        if (tabela[posicao] == null) {
+            ocupadas++;
+        }
+        tabela[posicao] = entrada;
+        return posicao;
+    }
+
+    @Override
+    public int inserir(K chave, V item) {
+        int posicao;
+        boolean encontrada = true;
+
+        if (robinHood != null)
+            return robinHood.inserir(chave, item);
+
+        medicao.iniciar();
+        migrarPasso();
+
+        posicao = localizar(tabela, capacidade, 0, chave);
+        if (posicao != -1) {
+            tabela[posicao].setValor(item);
+        } else if (tabelaAntiga != null && (posicao = localizar(tabelaAntiga, capacidadeAntiga, posicaoMigracao, chave)) != -1) {
+            tabelaAntiga[posicao].setValor(item);
+        } else {
+            posicao = gravar(new Entrada<>(chave, item));
+            tamanho++;
+            verificarCarga();
+            encontrada = false;
         }
 
-        tabela[posicao] = new Entrada<>(chave, item);
-        tamanho++;
+        medicao.encerrar(METRICA_INSERCAO, encontrada);
         return posicao;
     }
 
     @Override
     public V pesquisar(K chave) {
-        int posicao = hash(chave);
-        int posInicial = posicao;
+        Entrada<K, V> entrada;
 
-        while (tabela[posicao] != null) {
-            if (tabela[posicao].getChave().equals(chave)) {
-                return tabela[posicao].getValor();
-            }
-            posicao = (posicao + 1) % capacidade;
+        if (robinHood != null)
+            return robinHood.pesquisar(chave);
 
-            if (posicao == posInicial) {
-                break;
+        entrada = procurar(chave);
+
+        if (entrada == null)
+            throw new NoSuchElementException("Item não encontrado");
+        return entrada.getValor();
+    }
+
+    @Override
+    public boolean contem(K chave) {
+        if (robinHood != null)
+            return robinHood.contem(chave);
+        return procurar(chave) != null;
+    }
+
+    /**
+     * Procura a entrada da chave na tabela atual e, durante uma migração, na tabela antiga, e registra a pesquisa.
+     * @return a entrada da chave, ou {@code null} se ela não estiver na tabela.
+     */
+    private Entrada<K, V> procurar(K chave) {
+        int posicao;
+
+        medicao.iniciar();
+        posicao = localizar(tabela, capacidade, 0, chave);
+        if (posicao != -1) {
+            medicao.encerrar(METRICA_PESQUISA, true);
+            return tabela[posicao];
+        }
+        if (tabelaAntiga != null) {
+            posicao = localizar(tabelaAntiga, capacidadeAntiga, posicaoMigracao, chave);
+            if (posicao != -1) {
+                medicao.encerrar(METRICA_PESQUISA, true);
+                return tabelaAntiga[posicao];
             }
         }
-        
-        throw new NoSuchElementException("Item não encontrado");
+
+        medicao.encerrar(METRICA_PESQUISA, false);
+        return null;
     }
 
     @Override
     public V remover(K chave) {
-        throw new UnsupportedOperationException("Remoção não suportada nesta implementação");
+        int posicao;
+        V removido;
+
+        if (robinHood != null)
+            return robinHood.remover(chave);
+
+        medicao.iniciar();
+        migrarPasso();
+
+        posicao = localizar(tabela, capacidade, 0, chave);
+        if (posicao != -1) {
+            removido = tabela[posicao].getValor();
+            tabela[posicao] = removida;
+        } else if (tabelaAntiga != null && (posicao = localizar(tabelaAntiga, capacidadeAntiga, posicaoMigracao, chave)) != -1) {
+            removido = tabelaAntiga[posicao].getValor();
+            tabelaAntiga[posicao] = removida;
+        } else {
+            medicao.encerrar(METRICA_REMOCAO, false);
+            throw new NoSuchElementException("Item não encontrado");
+        }
+
+        tamanho--;
+        medicao.encerrar(METRICA_REMOCAO, true);
+        return removido;
+    }
+
+    /**
+     * Inicia um redimensionamento quando a ocupação da tabela atual (entradas válidas e marcas de remoção)
+     * ultrapassa o fator de carga. Se a maior parte da ocupação for de marcas de remoção, a nova tabela
+     * mantém a capacidade atual e serve apenas para descartá-las; caso contrário, tem o dobro da capacidade.
+     * A nova tabela é preenchida de forma incremental, em {@link #migrarPasso()}, evitando que uma única
+     * inserção pague o custo de reespalhar todas as entradas.
+     */
+    @SuppressWarnings("unchecked")
+    private void verificarCarga() {
+        int novaCapacidade;
+
+        if (ocupadas <= capacidade * FATOR_CARGA)
+            return;
+
+        if (tabelaAntiga != null)
+            concluirMigracao();
+
+        novaCapacidade = (tamanho > capacidade / 2) ? capacidade * 2 : capacidade;
+
+        tabelaAntiga = tabela;
+        capacidadeAntiga = capacidade;
+        posicaoMigracao = 0;
+
+        tabela = new Entrada[novaCapacidade];
+        capacidade = novaCapacidade;
+        ocupadas = 0;
+    }
+
+    /**
+     * Move para a tabela atual as entradas válidas de até {@link #PASSO_MIGRACAO} posições da tabela antiga.
+     * Quando todas as posições forem visitadas, a tabela antiga é descartada.
+     */
+    private void migrarPasso() {
+        int limite;
+
+        if (tabelaAntiga == null)
+            return;
+
+        limite = Math.min(posicaoMigracao + PASSO_MIGRACAO, capacidadeAntiga);
+        for (; posicaoMigracao < limite; posicaoMigracao++) {
+            Entrada<K, V> entrada = tabelaAntiga[posicaoMigracao];
+            if (entrada != null && entrada != removida) {
+                gravar(entrada);
+            }
+            /// A posição migrada é marcada como removida, e não esvaziada, para não interromper
+            /// as sequências de sondagem das entradas que ainda estão na tabela antiga.
+            tabelaAntiga[posicaoMigracao] = removida;
+        }
+
+        if (posicaoMigracao == capacidadeAntiga)
+            tabelaAntiga = null;
+    }
+
+    private void concluirMigracao() {
+        while (tabelaAntiga != null)
+            migrarPasso();
     }
 
     @Override
     public int tamanho() {
-        return tamanho;
+        return (robinHood != null) ? robinHood.tamanho() : tamanho;
     }
-    
+
     @Override
-    public long getComparacoes() { 
-        return 0; 
+    public long getComparacoes() {
+        return medicao.getComparacoes();
     }
-    
+
     @Override
-    public double getTempo() { 
-        return 0; 
+    public double getTempo() {
+        return medicao.getTempo();
+    }
+
+    /**
+     * Retorna a medição acumulada das operações sobre a tabela: colisões e histogramas
+     * do comprimento das sondagens e do tempo de cada operação.
+     */
+    public MedicaoSondagem getMedicao() {
+        return medicao;
     }
 
     @Override
-    public String percorrer() {
-        StringBuilder sb = new StringBuilder();
+    public void percorrer(Appendable destino) throws IOException {
+        if (robinHood != null) {
+            robinHood.percorrer(destino);
+            return;
+        }
+        if (tabelaAntiga != null) {
+            percorrer(tabelaAntiga, destino);
+        }
+        percorrer(tabela, destino);
+    }
+
+    private void percorrer(Entrada<K, V>[] tabela, Appendable destino) throws IOException {
         for (Entrada<K, V> entrada : tabela) {
-            if (entrada != null) {
-                sb.append(entrada.toString()).append("\n");
+            if (entrada != null && entrada != removida) {
+                destino.append(entrada.toString()).append("\n");
             }
         }
-        return sb.toString();
     }
-}
\ No newline at end of file
+}
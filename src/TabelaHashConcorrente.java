@@ -0,0 +1,207 @@
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Tabela hash segura para uso por várias threads, organizada em segmentos (lock striping).
+ * Cada segmento é uma {@link TabelaHashRobinHood} protegida por seu próprio bloqueio; uma chave
+ * pertence sempre ao mesmo segmento, de modo que threads que operam sobre chaves de segmentos
+ * diferentes não disputam o mesmo bloqueio.
+ */
+public class TabelaHashConcorrente<K, V> implements IMapeamento<K, V> {
+
+    /** Quantidade padrão de segmentos: a menor potência de 2 que seja ao menos 4 vezes o número de processadores. */
+    private static final int SEGMENTOS_PADRAO =
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 4 - 1) << 1;
+
+    private final TabelaHashRobinHood<K, V>[] segmentos;
+    private final ReentrantLock[] bloqueios;
+    private final int mascara;
+    private final AtomicInteger tamanho;
+
+    private volatile long ultimasComparacoes;
+    private volatile double ultimoTempo;
+
+    public TabelaHashConcorrente() {
+        this(0);
+    }
+
+    public TabelaHashConcorrente(int capacidade) {
+        this(capacidade, SEGMENTOS_PADRAO);
+    }
+
+    /**
+     * Construtor da classe.
+     * @param capacidade capacidade inicial total, dividida igualmente entre os segmentos.
+     * @param quantosSegmentos quantidade de segmentos (arredondada para a potência de 2 seguinte).
+     */
+    @SuppressWarnings("unchecked")
+    public TabelaHashConcorrente(int capacidade, int quantosSegmentos) {
+        int segmentosPotenciaDeDois;
+
+        if (quantosSegmentos < 1)
+            throw new IllegalArgumentException("A tabela deve ter ao menos um segmento.");
+
+        segmentosPotenciaDeDois = Integer.highestOneBit(quantosSegmentos);
+        if (segmentosPotenciaDeDois != quantosSegmentos)
+            segmentosPotenciaDeDois <<= 1;
+
+        segmentos = new TabelaHashRobinHood[segmentosPotenciaDeDois];
+        bloqueios = new ReentrantLock[segmentosPotenciaDeDois];
+        for (int i = 0; i < segmentosPotenciaDeDois; i++) {
+            segmentos[i] = new TabelaHashRobinHood<>(capacidade / segmentosPotenciaDeDois, "TabelaHashConcorrente");
+            bloqueios[i] = new ReentrantLock();
+        }
+        mascara = segmentosPotenciaDeDois - 1;
+        tamanho = new AtomicInteger(0);
+    }
+
+    /**
+     * Escolhe o segmento da chave a partir dos bits baixos de uma mistura (finalizador do MurmurHash3)
+     * do seu código hash. Os segmentos usam os bits altos para posicionar as entradas, então as duas
+     * escolhas não se correlacionam.
+     */
+    private int segmento(K chave) {
+        int h = chave.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h & mascara;
+    }
+
+    private void registrarMedicao(TabelaHashRobinHood<K, V> segmento) {
+        ultimasComparacoes = segmento.getComparacoes();
+        ultimoTempo = segmento.getTempo();
+    }
+
+    @Override
+    public int inserir(K chave, V item) {
+        int indice = segmento(chave);
+        TabelaHashRobinHood<K, V> segmento = segmentos[indice];
+        int tamanhoAnterior, posicao;
+
+        bloqueios[indice].lock();
+        try {
+            tamanhoAnterior = segmento.tamanho();
+            posicao = segmento.inserir(chave, item);
+            tamanho.addAndGet(segmento.tamanho() - tamanhoAnterior);
+            registrarMedicao(segmento);
+        } finally {
+            bloqueios[indice].unlock();
+        }
+        return posicao;
+    }
+
+    @Override
+    public V pesquisar(K chave) {
+        int indice = segmento(chave);
+        TabelaHashRobinHood<K, V> segmento = segmentos[indice];
+
+        bloqueios[indice].lock();
+        try {
+            return segmento.pesquisar(chave);
+        } finally {
+            registrarMedicao(segmento);
+            bloqueios[indice].unlock();
+        }
+    }
+
+    @Override
+    public boolean contem(K chave) {
+        int indice = segmento(chave);
+        TabelaHashRobinHood<K, V> segmento = segmentos[indice];
+
+        bloqueios[indice].lock();
+        try {
+            return segmento.contem(chave);
+        } finally {
+            registrarMedicao(segmento);
+            bloqueios[indice].unlock();
+        }
+    }
+
+    /**
+     * Retorna o valor associado à chave ou, se ela ainda não estiver na tabela, cria o valor com a função
+     * fornecida e o insere. A operação é atômica: threads concorrentes que pedem a mesma chave recebem
+     * o mesmo valor, e a função é executada no máximo uma vez por chave.
+     * A função é executada com o segmento bloqueado e, portanto, deve ser rápida e não acessar esta tabela.
+     * @param chave a chave do item procurado.
+     * @param criador função que cria o item a ser associado à chave, caso ela não esteja na tabela.
+     * @return o valor já associado à chave ou o valor recém-criado.
+     */
+    public V pesquisarOuInserir(K chave, Function<? super K, ? extends V> criador) {
+        int indice = segmento(chave);
+        TabelaHashRobinHood<K, V> segmento = segmentos[indice];
+        int tamanhoAnterior;
+        V item;
+
+        bloqueios[indice].lock();
+        try {
+            tamanhoAnterior = segmento.tamanho();
+            item = segmento.pesquisarOuInserir(chave, criador);
+            if (segmento.tamanho() != tamanhoAnterior)
+                tamanho.incrementAndGet();
+            registrarMedicao(segmento);
+        } finally {
+            bloqueios[indice].unlock();
+        }
+        return item;
+    }
+
+    @Override
+    public V remover(K chave) {
+        int indice = segmento(chave);
+        TabelaHashRobinHood<K, V> segmento = segmentos[indice];
+        V removido;
+
+        bloqueios[indice].lock();
+        try {
+            removido = segmento.remover(chave);
+            tamanho.decrementAndGet();
+        } finally {
+            registrarMedicao(segmento);
+            bloqueios[indice].unlock();
+        }
+        return removido;
+    }
+
+    @Override
+    public int tamanho() {
+        return tamanho.get();
+    }
+
+    /**
+     * Quantidade de posições examinadas na última operação concluída, por qualquer thread.
+     */
+    @Override
+    public long getComparacoes() {
+        return ultimasComparacoes;
+    }
+
+    /**
+     * Tempo, em milissegundos, da última operação concluída, por qualquer thread, ou 0 se ela não foi cronometrada.
+     */
+    @Override
+    public double getTempo() {
+        return ultimoTempo;
+    }
+
+    /**
+     * Percorre os segmentos um a um, bloqueando cada um deles enquanto é percorrido.
+     * O resultado não é um retrato instantâneo da tabela se houver modificações concorrentes.
+     */
+    @Override
+    public void percorrer(Appendable destino) throws IOException {
+        for (int i = 0; i < segmentos.length; i++) {
+            bloqueios[i].lock();
+            try {
+                segmentos[i].percorrer(destino);
+            } finally {
+                bloqueios[i].unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,279 @@
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+/**
+ * Tabela hash especializada para chaves inteiras, como os identificadores de produtos.
+ *
+ * As chaves ficam num vetor de {@code int} e os valores num vetor paralelo, sem objetos {@link Entrada}
+ * nem chaves encaixotadas em {@link Integer}: uma pesquisa por {@link #pesquisar(int)} não aloca memória
+ * e compara as chaves diretamente, sem chamadas a {@code equals} ou {@code hashCode}.
+ * Usa endereçamento aberto com sondagem linear, capacidade em potência de 2 e hashing de Fibonacci;
+ * a remoção reposiciona as entradas seguintes da sequência, sem marcas de remoção.
+ * Valores {@code null} não são aceitos, pois indicam posições vazias.
+ */
+public class TabelaHashInt<V> implements IMapeamento<Integer, V> {
+
+    /** Capacidade mínima da tabela, usada também pelo construtor padrão. */
+    private static final int CAPACIDADE_MINIMA = 8;
+
+    /** Fator de carga a partir do qual a tabela tem sua capacidade dobrada. */
+    private static final double FATOR_CARGA = 0.75;
+
+    /** Constante multiplicativa do hashing de Fibonacci: 2^32 dividido pela razão áurea. */
+    private static final int FIBONACCI = 0x9E3779B9;
+
+    private int[] chaves;
+    private Object[] valores;
+    private int mascara;
+    private int deslocamento;
+    private int limiteCarga;
+    private int tamanho;
+
+    private final MedicaoSondagem medicao = new MedicaoSondagem();
+
+    private static final Metrica METRICA_PESQUISA = RegistroMetricas.metrica("TabelaHashInt", "pesquisar");
+    private static final Metrica METRICA_INSERCAO = RegistroMetricas.metrica("TabelaHashInt", "inserir");
+    private static final Metrica METRICA_REMOCAO = RegistroMetricas.metrica("TabelaHashInt", "remover");
+
+    public TabelaHashInt() {
+        this(CAPACIDADE_MINIMA);
+    }
+
+    /**
+     * Construtor da classe.
+     * @param quantidadeEsperada quantidade de chaves que a tabela deve comportar sem ser redimensionada.
+     */
+    public TabelaHashInt(int quantidadeEsperada) {
+        int capacidade = Integer.highestOneBit(Math.max((int) (quantidadeEsperada / FATOR_CARGA), CAPACIDADE_MINIMA - 1)) << 1;
+        alocar(capacidade);
+        tamanho = 0;
+    }
+
+    private void alocar(int capacidade) {
+        mascara = capacidade - 1;
+        deslocamento = Integer.numberOfLeadingZeros(capacidade) + 1;
+        limiteCarga = (int) (capacidade * FATOR_CARGA);
+        chaves = new int[capacidade];
+        valores = new Object[capacidade];
+    }
+
+    private int posicaoInicial(int chave) {
+        return (chave * FIBONACCI) >>> deslocamento;
+    }
+
+    /**
+     * Localiza a posição da chave na tabela.
+     * @return a posição da chave, ou -1 se ela não estiver na tabela.
+     */
+    private int localizar(int chave) {
+        int posicao = posicaoInicial(chave);
+
+        while (valores[posicao] != null) {
+            if (chaves[posicao] == chave) {
+                medicao.sondar(false);
+                return posicao;
+            }
+            medicao.sondar(true);
+            posicao = (posicao + 1) & mascara;
+        }
+        medicao.sondar(false);
+        return -1;
+    }
+
+    /**
+     * Grava o par chave-valor na primeira posição vazia da sequência de sondagem da chave,
+     * que não pode estar presente na tabela.
+     */
+    private int gravar(int chave, Object valor) {
+        int posicao = posicaoInicial(chave);
+
+        while (valores[posicao] != null)
+            posicao = (posicao + 1) & mascara;
+
+        chaves[posicao] = chave;
+        valores[posicao] = valor;
+        return posicao;
+    }
+
+    private void redimensionar(int novaCapacidade) {
+        int[] chavesAntigas = chaves;
+        Object[] valoresAntigos = valores;
+
+        alocar(novaCapacidade);
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (valoresAntigos[i] != null)
+                gravar(chavesAntigas[i], valoresAntigos[i]);
+        }
+    }
+
+    /**
+     * Insere o item associado à chave inteira, ou substitui o item já associado a ela.
+     * @return a posição em que o item foi armazenado.
+     * @throws IllegalArgumentException se o item for {@code null}.
+     */
+    public int inserir(int chave, V item) {
+        int posicao;
+        boolean encontrada;
+
+        if (item == null)
+            throw new IllegalArgumentException("A tabela não armazena itens nulos.");
+
+        medicao.iniciar();
+        posicao = localizar(chave);
+        encontrada = (posicao != -1);
+        if (encontrada) {
+            valores[posicao] = item;
+        } else {
+            if (tamanho >= limiteCarga)
+                redimensionar((mascara + 1) * 2);
+            posicao = gravar(chave, item);
+            tamanho++;
+        }
+        medicao.encerrar(METRICA_INSERCAO, encontrada);
+        return posicao;
+    }
+
+    @Override
+    public int inserir(Integer chave, V item) {
+        return inserir(chave.intValue(), item);
+    }
+
+    /**
+     * Pesquisa o item associado à chave inteira, sem alocação de memória.
+     * @return o item associado à chave.
+     * @throws NoSuchElementException se a chave não estiver na tabela.
+     */
+    @SuppressWarnings("unchecked")
+    public V pesquisar(int chave) {
+        int posicao;
+
+        medicao.iniciar();
+        posicao = localizar(chave);
+        medicao.encerrar(METRICA_PESQUISA, posicao != -1);
+
+        if (posicao == -1)
+            throw new NoSuchElementException("Item não encontrado");
+
+        return (V) valores[posicao];
+    }
+
+    @Override
+    public V pesquisar(Integer chave) {
+        return pesquisar(chave.intValue());
+    }
+
+    /**
+     * Pesquisa o item associado à chave inteira sem registrar a operação na medição nem na métrica da tabela.
+     * Como não escreve em nenhum campo, pode ser chamada por várias threads ao mesmo tempo, desde que nenhuma
+     * delas altere a tabela; {@link #pesquisar(int)} grava os números da operação na medição, que não é
+     * protegida contra acessos concorrentes.
+     * @return o item associado à chave.
+     * @throws NoSuchElementException se a chave não estiver na tabela.
+     */
+    @SuppressWarnings("unchecked")
+    public V pesquisarSemMedicao(int chave) {
+        int posicao = posicaoInicial(chave);
+
+        while (valores[posicao] != null) {
+            if (chaves[posicao] == chave)
+                return (V) valores[posicao];
+            posicao = (posicao + 1) & mascara;
+        }
+        throw new NoSuchElementException("Item não encontrado");
+    }
+
+    /**
+     * Remove o item associado à chave inteira.
+     * As entradas seguintes da sequência de sondagem que não estejam entre sua posição inicial e a posição
+     * liberada são movidas para ela, de modo que nenhuma pesquisa seja interrompida pela posição vazia.
+     * @return o item removido.
+     * @throws NoSuchElementException se a chave não estiver na tabela.
+     */
+    @SuppressWarnings("unchecked")
+    public V remover(int chave) {
+        int vazia, proxima, inicial;
+        V removido;
+
+        medicao.iniciar();
+        vazia = localizar(chave);
+        if (vazia == -1) {
+            medicao.encerrar(METRICA_REMOCAO, false);
+            throw new NoSuchElementException("Item não encontrado");
+        }
+
+        removido = (V) valores[vazia];
+        valores[vazia] = null;
+
+        proxima = (vazia + 1) & mascara;
+        while (valores[proxima] != null) {
+            inicial = posicaoInicial(chaves[proxima]);
+            /// A entrada só pode ficar onde está se sua posição inicial estiver, circularmente,
+            /// depois da posição vazia e até a posição da própria entrada.
+            if (((proxima - inicial) & mascara) >= ((proxima - vazia) & mascara)) {
+                chaves[vazia] = chaves[proxima];
+                valores[vazia] = valores[proxima];
+                valores[proxima] = null;
+                vazia = proxima;
+            }
+            proxima = (proxima + 1) & mascara;
+        }
+
+        tamanho--;
+        medicao.encerrar(METRICA_REMOCAO, true);
+        return removido;
+    }
+
+    @Override
+    public V remover(Integer chave) {
+        return remover(chave.intValue());
+    }
+
+    /**
+     * Indica se a chave inteira está na tabela.
+     */
+    public boolean contem(int chave) {
+        int posicao;
+
+        medicao.iniciar();
+        posicao = localizar(chave);
+        medicao.encerrar(METRICA_PESQUISA, posicao != -1);
+        return posicao != -1;
+    }
+
+    @Override
+    public boolean contem(Integer chave) {
+        return contem(chave.intValue());
+    }
+
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+
+    @Override
+    public long getComparacoes() {
+        return medicao.getComparacoes();
+    }
+
+    @Override
+    public double getTempo() {
+        return medicao.getTempo();
+    }
+
+    /**
+     * Retorna a medição acumulada das operações sobre a tabela: colisões e histogramas
+     * do comprimento das sondagens e do tempo de cada operação.
+     */
+    public MedicaoSondagem getMedicao() {
+        return medicao;
+    }
+
+    @Override
+    public void percorrer(Appendable destino) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (valores[i] != null) {
+                destino.append(Integer.toString(chaves[i])).append("-->").append(String.valueOf(valores[i])).append("\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,331 @@
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Tabela hash com endereçamento aberto e sondagem linear no esquema Robin Hood.
+ * Cada posição guarda a distância entre ela e a posição inicial da sua entrada; durante a inserção,
+ * uma entrada "rica" (mais perto de casa) cede o lugar a uma entrada "pobre" (mais longe de casa).
+ * Isso mantém as sequências de sondagem curtas e de tamanho parecido mesmo com a tabela 85%-90% cheia,
+ * e permite encerrar uma pesquisa malsucedida assim que se encontra uma entrada mais perto de casa
+ * do que a chave procurada.
+ *
+ * A capacidade é sempre uma potência de 2 e a posição inicial é obtida por hashing de Fibonacci
+ * (multiplicação pela razão áurea e uso dos bits mais altos), o que espalha chaves sequenciais,
+ * como os identificadores de produtos, e dispensa a divisão do operador {@code %}.
+ * A remoção desloca para trás as entradas seguintes da sequência, sem marcas de remoção.
+ */
+public class TabelaHashRobinHood<K, V> implements IMapeamento<K, V> {
+
+    /** Capacidade mínima da tabela, usada também pelo construtor padrão. */
+    private static final int CAPACIDADE_MINIMA = 8;
+
+    /** Fator de carga a partir do qual a tabela tem sua capacidade dobrada. */
+    private static final double FATOR_CARGA = 0.9;
+
+    /**
+     * Distância de sondagem a partir da qual a tabela é redimensionada, se estiver ao menos meio cheia.
+     * Numa tabela mais vazia, uma sequência tão longa vem de chaves com o mesmo {@code hashCode}, que continuam
+     * com a mesma posição inicial em qualquer capacidade: a tabela não cresce, e a sequência apenas fica longa.
+     */
+    private static final int DISTANCIA_LONGA = Byte.MAX_VALUE;
+
+    /** Constante multiplicativa do hashing de Fibonacci: 2^32 dividido pela razão áurea. */
+    private static final int FIBONACCI = 0x9E3779B9;
+
+    private Entrada<K, V>[] tabela;
+
+    /** Distância de cada entrada até sua posição inicial, somada de 1. O valor 0 indica posição vazia. */
+    private int[] distancias;
+
+    private int capacidade;
+    private int mascara;
+    private int deslocamento;
+    private int limiteCarga;
+    private int tamanho;
+
+    private final MedicaoSondagem medicao;
+    private final Metrica metricaPesquisa;
+    private final Metrica metricaInsercao;
+    private final Metrica metricaRemocao;
+
+    public TabelaHashRobinHood() {
+        this(CAPACIDADE_MINIMA);
+    }
+
+    public TabelaHashRobinHood(int capacidade) {
+        this(capacidade, "TabelaHashRobinHood");
+    }
+
+    /**
+     * Construtor da classe, para tabelas que fazem parte de outra estrutura e registram suas operações
+     * nas métricas dela, como os segmentos de uma {@link TabelaHashConcorrente}.
+     * @param capacidade capacidade inicial da tabela.
+     * @param estrutura o nome da estrutura em cujas métricas as operações serão registradas.
+     */
+    TabelaHashRobinHood(int capacidade, String estrutura) {
+        this(capacidade, estrutura, new MedicaoSondagem());
+    }
+
+    private TabelaHashRobinHood(int capacidade, String estrutura, MedicaoSondagem medicao) {
+        alocar(potenciaDeDois(Math.max(capacidade, CAPACIDADE_MINIMA)));
+        this.tamanho = 0;
+        this.metricaPesquisa = RegistroMetricas.metrica(estrutura, "pesquisar");
+        this.metricaInsercao = RegistroMetricas.metrica(estrutura, "inserir");
+        this.metricaRemocao = RegistroMetricas.metrica(estrutura, "remover");
+        this.medicao = medicao;
+    }
+
+    /**
+     * Cria uma tabela auxiliar, de vida curta, como as que são montadas aos milhares e logo descartadas.
+     * Ela guarda apenas os números da última operação, sem acumular histogramas.
+     * @param capacidade capacidade inicial da tabela.
+     * @return a nova tabela.
+     */
+    static <K, V> TabelaHashRobinHood<K, V> auxiliar(int capacidade) {
+        return new TabelaHashRobinHood<>(capacidade, "TabelaHashRobinHood", new MedicaoSondagem(false));
+    }
+
+    private static int potenciaDeDois(int valor) {
+        int potencia = Integer.highestOneBit(valor);
+        return (potencia == valor) ? valor : potencia << 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void alocar(int capacidade) {
+        this.capacidade = capacidade;
+        this.mascara = capacidade - 1;
+        this.deslocamento = Integer.numberOfLeadingZeros(capacidade) + 1;
+        this.limiteCarga = (int) (capacidade * FATOR_CARGA);
+        this.tabela = new Entrada[capacidade];
+        this.distancias = new int[capacidade];
+    }
+
+    private int posicaoInicial(K chave) {
+        return (chave.hashCode() * FIBONACCI) >>> deslocamento;
+    }
+
+    /**
+     * Localiza a posição da chave na tabela.
+     * @return a posição da chave, ou -1 se ela não estiver na tabela.
+     */
+    private int localizar(K chave) {
+        int posicao = posicaoInicial(chave);
+        int distancia = 1;
+
+        while (distancias[posicao] >= distancia) {
+            if (tabela[posicao].getChave().equals(chave)) {
+                medicao.sondar(false);
+                return posicao;
+            }
+            medicao.sondar(true);
+            posicao = (posicao + 1) & mascara;
+            distancia++;
+        }
+        medicao.sondar(false);
+        return -1;
+    }
+
+    @Override
+    public int inserir(K chave, V item) {
+        int posicao;
+        boolean encontrada;
+
+        medicao.iniciar();
+        posicao = localizar(chave);
+        encontrada = (posicao != -1);
+        if (encontrada) {
+            tabela[posicao].setValor(item);
+        } else {
+            if (tamanho >= limiteCarga)
+                redimensionar(capacidade * 2);
+
+            posicao = gravar(new Entrada<>(chave, item));
+            tamanho++;
+            if (posicao == -1)
+                posicao = localizar(chave);
+        }
+        medicao.encerrar(metricaInsercao, encontrada);
+        return posicao;
+    }
+
+    /**
+     * Retorna o valor associado à chave. Se a chave ainda não estiver na tabela, o valor é criado pela
+     * função fornecida, inserido na tabela e retornado, numa única sondagem bem-sucedida.
+     * A operação é registrada na métrica das inserções, como encontrada se a chave já estava na tabela.
+     * @param chave a chave do item procurado.
+     * @param criador função que cria o item a ser associado à chave, caso ela não esteja na tabela.
+     * @return o valor já associado à chave ou o valor recém-criado.
+     */
+    public V pesquisarOuInserir(K chave, Function<? super K, ? extends V> criador) {
+        int posicao;
+        V item;
+
+        medicao.iniciar();
+        posicao = localizar(chave);
+        if (posicao != -1) {
+            item = tabela[posicao].getValor();
+        } else {
+            item = criador.apply(chave);
+            if (tamanho >= limiteCarga)
+                redimensionar(capacidade * 2);
+            gravar(new Entrada<>(chave, item));
+            tamanho++;
+        }
+        medicao.encerrar(metricaInsercao, posicao != -1);
+        return item;
+    }
+
+    /**
+     * Grava uma entrada cuja chave não está na tabela, trocando-a de lugar com entradas mais próximas
+     * de suas posições iniciais, conforme o esquema Robin Hood.
+     * @return a posição em que a entrada foi gravada, ou -1 se a tabela precisou ser redimensionada
+     * durante a gravação (caso em que a posição deve ser localizada novamente).
+     */
+    private int gravar(Entrada<K, V> entrada) {
+        int posicao = posicaoInicial(entrada.getChave());
+        int distancia = 1;
+        int posicaoGravada = -1;
+        Entrada<K, V> atual = entrada;
+        Entrada<K, V> deslocada;
+        int distanciaDeslocada;
+
+        while (distancias[posicao] != 0) {
+            if (distancias[posicao] < distancia) {
+                deslocada = tabela[posicao];
+                distanciaDeslocada = distancias[posicao];
+                tabela[posicao] = atual;
+                distancias[posicao] = distancia;
+                if (posicaoGravada == -1)
+                    posicaoGravada = posicao;
+                atual = deslocada;
+                distancia = distanciaDeslocada;
+            }
+            posicao = (posicao + 1) & mascara;
+            distancia++;
+
+            if ((distancia > DISTANCIA_LONGA) && (tamanho >= capacidade / 2)) {
+                /// Sequência longa numa tabela cheia: a tabela é redimensionada e a entrada em mãos é regravada.
+                redimensionar(capacidade * 2);
+                gravar(atual);
+                return -1;
+            }
+        }
+
+        tabela[posicao] = atual;
+        distancias[posicao] = distancia;
+        return (posicaoGravada == -1) ? posicao : posicaoGravada;
+    }
+
+    private void redimensionar(int novaCapacidade) {
+        Entrada<K, V>[] tabelaAntiga = tabela;
+        int[] distanciasAntigas = distancias;
+
+        alocar(novaCapacidade);
+        for (int i = 0; i < tabelaAntiga.length; i++) {
+            if (distanciasAntigas[i] != 0)
+                gravar(tabelaAntiga[i]);
+        }
+    }
+
+    @Override
+    public V pesquisar(K chave) {
+        int posicao;
+
+        medicao.iniciar();
+        posicao = localizar(chave);
+        medicao.encerrar(metricaPesquisa, posicao != -1);
+
+        if (posicao == -1)
+            throw new NoSuchElementException("Item não encontrado");
+
+        return tabela[posicao].getValor();
+    }
+
+    @Override
+    public boolean contem(K chave) {
+        int posicao;
+
+        medicao.iniciar();
+        posicao = localizar(chave);
+        medicao.encerrar(metricaPesquisa, posicao != -1);
+        return posicao != -1;
+    }
+
+    @Override
+    public V remover(K chave) {
+        int posicao;
+        int proxima;
+        V removido;
+
+        medicao.iniciar();
+        posicao = localizar(chave);
+        if (posicao == -1) {
+            medicao.encerrar(metricaRemocao, false);
+            throw new NoSuchElementException("Item não encontrado");
+        }
+
+        removido = tabela[posicao].getValor();
+
+        /// Deslocamento para trás: as entradas seguintes que não estão em sua posição inicial
+        /// avançam uma posição em direção a ela, ocupando o espaço liberado.
+        proxima = (posicao + 1) & mascara;
+        while (distancias[proxima] > 1) {
+            tabela[posicao] = tabela[proxima];
+            distancias[posicao] = distancias[proxima] - 1;
+            posicao = proxima;
+            proxima = (proxima + 1) & mascara;
+        }
+        tabela[posicao] = null;
+        distancias[posicao] = 0;
+
+        tamanho--;
+        medicao.encerrar(metricaRemocao, true);
+        return removido;
+    }
+
+    @Override
+    public int tamanho() {
+        return tamanho;
+    }
+
+    @Override
+    public long getComparacoes() {
+        return medicao.getComparacoes();
+    }
+
+    @Override
+    public double getTempo() {
+        return medicao.getTempo();
+    }
+
+    /**
+     * Retorna a medição acumulada das operações sobre a tabela: colisões e histogramas
+     * do comprimento das sondagens e do tempo de cada operação.
+     */
+    public MedicaoSondagem getMedicao() {
+        return medicao;
+    }
+
+    /**
+     * Executa a ação fornecida para cada par chave-valor da tabela, na ordem em que estão armazenados.
+     * @param acao a ação a ser executada para cada par.
+     */
+    public void paraCada(BiConsumer<? super K, ? super V> acao) {
+        for (Entrada<K, V> entrada : tabela) {
+            if (entrada != null) {
+                acao.accept(entrada.getChave(), entrada.getValor());
+            }
+        }
+    }
+
+    @Override
+    public void percorrer(Appendable destino) throws IOException {
+        for (Entrada<K, V> entrada : tabela) {
+            if (entrada != null) {
+                destino.append(entrada.toString()).append("\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Treap: árvore binária de busca em que cada nó recebe, ao ser criado, uma prioridade aleatória, e os nós
+ * formam também um heap pelas prioridades (cada nó tem prioridade maior ou igual à dos seus filhos).
+ * A árvore resultante tem a forma de uma árvore construída pela inserção dos itens em ordem aleatória,
+ * com altura esperada O(log n), qualquer que seja a ordem real das inserções.
+ *
+ * O balanceamento não guarda alturas nem cores: a inserção sobe o novo nó por rotações enquanto sua prioridade
+ * for maior que a do pai, e a remoção desce o nó retirado até que ele tenha no máximo um filho. Em média,
+ * cada operação faz menos de duas rotações.
+ * Como nas demais árvores, os nós mantêm a quantidade de nodos de suas sub-árvores.
+ */
+public class Treap<K, V> extends ABB<K, V> {
+
+	/**
+	 * Nó com a sua prioridade no heap.
+	 */
+	private static final class NoTreap<K, V> extends No<K, V> {
+
+		private int prioridade;
+
+		private NoTreap(K chave, V item, int prioridade) {
+			super(chave, item);
+			this.prioridade = prioridade;
+		}
+	}
+
+	/**
+	 *  Construtor da classe.
+	 *  Esse construtor cria uma nova treap vazia.
+	 */
+	public Treap() {
+		super();
+	}
+
+	public Treap(Comparator<K> comparador) {
+		super(comparador);
+	}
+
+	public Treap(ABB<?, V> original, Function<V, K> funcaoChave, Comparator<K> comparador) {
+		super(original, funcaoChave, comparador);
+	}
+
+	@Override
+	protected No<K, V> criarNo(K chave, V item) {
+		return new NoTreap<>(chave, item, ThreadLocalRandom.current().nextInt());
+	}
+
+	private static int prioridade(No<?, ?> no) {
+		return ((NoTreap<?, ?>) no).prioridade;
+	}
+
+	/**
+	 * Substitui o conteúdo da árvore pelos itens fornecidos, construindo uma árvore perfeitamente balanceada.
+	 * Prioridades aleatórias são sorteadas, ordenadas e distribuídas nível a nível, das maiores para as menores,
+	 * o que mantém a propriedade de heap.
+	 */
+	@Override
+	public void carregar(Entrada<K, V>[] entradas) {
+
+		ArrayDeque<No<K, V>> fila = new ArrayDeque<>();
+		int[] prioridades;
+		int proxima;
+		No<K, V> no;
+
+		super.carregar(entradas);
+
+		prioridades = new int[tamanho];
+		for (int i = 0; i < tamanho; i++)
+			prioridades[i] = ThreadLocalRandom.current().nextInt();
+		Arrays.sort(prioridades);
+
+		proxima = tamanho - 1;
+		if (raiz != null)
+			fila.add(raiz);
+		while (!fila.isEmpty()) {
+			no = fila.poll();
+			((NoTreap<K, V>) no).prioridade = prioridades[proxima--];
+			if (no.getEsquerda() != null)
+				fila.add(no.getEsquerda());
+			if (no.getDireita() != null)
+				fila.add(no.getDireita());
+		}
+	}
+
+	/**
+	 * Guarda o nó no topo da pilha do caminho, aumentando-a se necessário.
+	 * A altura de uma treap não tem limite fixo, apenas esperado.
+	 */
+	private static <K, V> No<K, V>[] empilhar(No<K, V>[] caminho, int profundidade, No<K, V> no) {
+
+		if (profundidade == caminho.length)
+			caminho = Arrays.copyOf(caminho, 2 * caminho.length);
+		caminho[profundidade] = no;
+		return caminho;
+	}
+
+	@SuppressWarnings("unchecked")
+	private No<K, V>[] novoCaminho() {
+
+		return new No[2 * (Integer.SIZE - Integer.numberOfLeadingZeros(tamanho + 1)) + 2];
+	}
+
+	/**
+	 * Método que adiciona, de forma iterativa, um item à árvore.
+	 * O novo nó é inserido como folha e sobe, por rotações, enquanto sua prioridade for maior que a do pai.
+	 * @param chave a chave associada ao item que será inserido na árvore.
+	 * @param item o item que será inserido na árvore.
+	 * @return o tamanho atualizado da árvore após a execução da operação de inserção.
+	 * @throws IllegalArgumentException se um item com a mesma chave já estiver presente na árvore.
+	 */
+	@Override
+	protected int inserirNaArvore(K chave, V item) {
+
+		No<K, V>[] caminho = novoCaminho();
+		int profundidade = 0;
+		No<K, V> atual = raiz;
+		No<K, V> novo, pai;
+		int comparacao = 0;
+
+		while (atual != null) {
+			comparacao = comparador.compare(chave, atual.getChave());
+
+			if (comparacao == 0)
+				throw new IllegalArgumentException("O item já foi inserido anteriormente na árvore.");
+
+			caminho = empilhar(caminho, profundidade++, atual);
+			atual = (comparacao < 0) ? atual.getEsquerda() : atual.getDireita();
+		}
+
+		novo = criarNo(chave, item);
+		if (profundidade == 0)
+			raiz = novo;
+		else if (comparacao < 0)
+			caminho[profundidade - 1].setEsquerda(novo);
+		else
+			caminho[profundidade - 1].setDireita(novo);
+
+		tamanho++;
+		for (int i = 0; i < profundidade; i++)
+			caminho[i].setTamanho(caminho[i].getTamanho() + 1);
+
+		while ((profundidade > 0) && (prioridade(caminho[profundidade - 1]) < prioridade(novo))) {
+			pai = caminho[--profundidade];
+			substituirFilho((profundidade > 0) ? caminho[profundidade - 1] : null, pai,
+					(pai.getEsquerda() == novo) ? rotacionarDireita(pai) : rotacionarEsquerda(pai));
+		}
+
+		return tamanho;
+	}
+
+	/**
+	 * Método que localiza e retira, de forma iterativa, um item da árvore.
+	 * O nó do item desce, por rotações com o filho de maior prioridade, até ter no máximo um filho,
+	 * que então ocupa o seu lugar.
+	 * @param chave a chave do item que deverá ser localizado e removido da árvore.
+	 * @return o valor associado ao item removido.
+	 */
+	@Override
+	protected V removerDaArvore(K chave) {
+
+		No<K, V>[] caminho = novoCaminho();
+		int profundidade = 0;
+		No<K, V> atual = raiz;
+		No<K, V> filho;
+		int comparacao;
+
+		while ((atual != null) && ((comparacao = comparador.compare(chave, atual.getChave())) != 0)) {
+			caminho = empilhar(caminho, profundidade++, atual);
+			atual = (comparacao < 0) ? atual.getEsquerda() : atual.getDireita();
+		}
+
+		if (atual == null)
+			throw new NoSuchElementException("O item a ser removido não foi localizado na árvore!");
+
+		while ((atual.getEsquerda() != null) && (atual.getDireita() != null)) {
+			if (prioridade(atual.getEsquerda()) > prioridade(atual.getDireita()))
+				filho = rotacionarDireita(atual);
+			else
+				filho = rotacionarEsquerda(atual);
+			substituirFilho((profundidade > 0) ? caminho[profundidade - 1] : null, atual, filho);
+			caminho = empilhar(caminho, profundidade++, filho);
+		}
+
+		filho = (atual.getEsquerda() != null) ? atual.getEsquerda() : atual.getDireita();
+		substituirFilho((profundidade > 0) ? caminho[profundidade - 1] : null, atual, filho);
+
+		tamanho--;
+		/// Os tamanhos são recalculados de baixo para cima, incluindo os nós que subiram nas rotações.
+		for (int i = profundidade - 1; i >= 0; i--)
+			caminho[i].setTamanho();
+
+		return atual.getItem();
+	}
+
+	private No<K, V> rotacionarDireita(No<K, V> p) {
+
+		No<K, V> u = p.getEsquerda();
+
+		p.setEsquerda(u.getDireita());
+		u.setDireita(p);
+
+		p.setTamanho();
+		u.setTamanho();
+
+		return u;
+	}
+
+	private No<K, V> rotacionarEsquerda(No<K, V> p) {
+
+		No<K, V> z = p.getDireita();
+
+		p.setDireita(z.getEsquerda());
+		z.setEsquerda(p);
+
+		p.setTamanho();
+		z.setTamanho();
+
+		return z;
+	}
+}